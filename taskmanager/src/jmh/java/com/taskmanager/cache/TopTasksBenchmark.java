@@ -0,0 +1,68 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.dto.TasksDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The original getTopFivePriorityTasksForUser sorted every task a user owns in Java and
+ * kept five; {@link #sortAllInJava()} reproduces that. {@link #cachedTopFive()} is the
+ * current read path once the user's top-K is cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TopTasksBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int tasksPerUser;
+
+    private List<TasksDTO> tasks;
+    private TopTasksCache cache;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        tasks = new ArrayList<>(tasksPerUser);
+        for (long id = 1; id <= tasksPerUser; id++) {
+            TasksDTO t = new TasksDTO();
+            t.setId(id);
+            t.setTitle("Task " + id);
+            t.setPriority(random.nextInt(12) == 0 ? null : 1 + random.nextInt(10));
+            tasks.add(t);
+        }
+        cache = new TopTasksCache(20, 1000);
+        cache.top(1L, 5, n -> tasks.stream().sorted(TopTasksCache.ORDER).limit(n).collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<TasksDTO> sortAllInJava() {
+        return tasks.stream()
+                .sorted((a, b) -> {
+                    int pa = a.getPriority() == null ? 0 : a.getPriority();
+                    int pb = b.getPriority() == null ? 0 : b.getPriority();
+                    return Integer.compare(pb, pa);
+                })
+                .limit(5)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<TasksDTO> cachedTopFive() {
+        return cache.top(1L, 5, n -> {
+            throw new IllegalStateException("benchmark expects a warm cache");
+        });
+    }
+}
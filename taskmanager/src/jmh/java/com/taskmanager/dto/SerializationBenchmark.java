@@ -0,0 +1,65 @@
+package com.taskmanager.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private List<TasksDTO> tasks;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = JsonMapper.builder().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, TasksDTO.class));
+
+        ProjectDTO project = new ProjectDTO();
+        project.setId(10L);
+        project.setTitle("Benchmark project");
+        project.setDescription("Project used by SerializationBenchmark");
+        project.setStartDate(LocalDate.of(2025, 1, 1));
+        project.setEndDate(LocalDate.of(2025, 12, 31));
+        project.setUserId(1L);
+
+        tasks = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            TasksDTO t = new TasksDTO();
+            t.setId(id);
+            t.setTitle("Task number " + id);
+            t.setDescription("A description long enough to look like something a person typed for task " + id);
+            t.setStatus(id % 3 == 0 ? "DONE" : "TODO");
+            t.setDueDate(LocalDate.of(2025, 6, 1).plusDays(id % 90));
+            t.setPriority((int) (id % 10) + 1);
+            t.setCreatedAt(LocalDateTime.of(2025, 1, 1, 8, 0).plusMinutes(id));
+            t.setUpdatedAt(t.getCreatedAt().plusHours(3));
+            t.setProjectDTO(project);
+            tasks.add(t);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() {
+        return writer.writeValueAsBytes(tasks);
+    }
+}
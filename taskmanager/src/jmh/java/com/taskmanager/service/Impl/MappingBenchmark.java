@@ -0,0 +1,74 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.entity.Project;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.Tasks;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.projection.TaskRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    private TMSServiceImpl service;
+    private Tasks task;
+    private TaskRow row;
+
+    @Setup
+    public void setup() {
+        service = new TMSServiceImpl();
+
+        User user = new User();
+        user.setId(1L);
+        user.setName("bench");
+        user.setEmail("bench@example.com");
+
+        Project project = new Project();
+        project.setId(10L);
+        project.setTitle("Benchmark project");
+        project.setDescription("Project used by MappingBenchmark");
+        project.setStartDate(LocalDate.of(2025, 1, 1));
+        project.setEndDate(LocalDate.of(2025, 12, 31));
+        project.setUser(user);
+
+        task = new Tasks();
+        task.setId(100L);
+        task.setTitle("Write quarterly report");
+        task.setDescription("Collect numbers from every team and summarise them");
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setDueDate(LocalDate.of(2025, 3, 31));
+        task.setPriority(7);
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 2, 9, 30));
+        task.setUpdatedAt(LocalDateTime.of(2025, 1, 5, 16, 45));
+        task.setVersion(3L);
+        task.setProject(project);
+
+        row = new TaskRow(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getDueDate(), task.getPriority(), task.getCreatedAt(), task.getUpdatedAt(), task.getVersion(),
+                project.getId(), project.getTitle(), project.getDescription(), project.getStartDate(),
+                project.getEndDate(), user.getId());
+    }
+
+    @Benchmark
+    public TasksDTO mapEntity() {
+        return service.mapToDto(task);
+    }
+
+    @Benchmark
+    public TasksDTO mapProjection() {
+        return service.mapToDto(row);
+    }
+}
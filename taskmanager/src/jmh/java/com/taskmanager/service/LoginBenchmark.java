@@ -0,0 +1,74 @@
+package com.taskmanager.service;
+
+import com.taskmanager.TaskmanagerApplication;
+import com.taskmanager.dto.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link TMSService#loginUser} against an embedded H2 database seeded with
+ * {@code users} rows, so the cost of the name lookup shows up as the table grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoginBenchmark {
+
+    @Param({"1000", "100000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private TMSService service;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        context = new SpringApplicationBuilder(TaskmanagerApplication.class)
+                .web(WebApplicationType.NONE)
+                // passed as arguments so they win over application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:login-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--logging.level.root=WARN");
+        service = context.getBean(TMSService.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{i + 1L, "User" + i, "user" + i + "@example.com", "user" + i, "user" + i + "@example.com"});
+        }
+        // users.id comes from users_seq on the Hibernate side, so plain JDBC inserts name it explicitly
+        jdbc.batchUpdate("insert into users (id, name, email, name_normalized, email_normalized) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO login() {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        UserDTO credentials = new UserDTO();
+        credentials.setName("user" + i);
+        credentials.setEmail("USER" + i + "@example.com");
+        return service.loginUser(credentials);
+    }
+}
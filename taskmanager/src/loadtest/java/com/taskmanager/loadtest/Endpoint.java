@@ -0,0 +1,94 @@
+package com.taskmanager.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The requests the load test can issue. Each one picks its user, project or task at random
+ * from the seeded data, so caches see a realistic spread of keys rather than one hot row.
+ */
+enum Endpoint {
+
+    LOGIN("login") {
+        @Override
+        HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random) {
+            return post(base.resolve("/api/auth/login"),
+                    "{\"name\":\"" + user.name() + "\",\"email\":\"" + user.email() + "\"}");
+        }
+    },
+    LIST_PROJECTS("listProjects") {
+        @Override
+        HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random) {
+            return get(base.resolve("/api/projects?userId=" + user.id()));
+        }
+    },
+    PROJECT_TASKS("projectTasks") {
+        @Override
+        HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random) {
+            return get(base.resolve("/api/projects/" + user.randomProject(random)
+                    + "/tasks?userId=" + user.id() + "&limit=50"));
+        }
+    },
+    GET_TASK("getTask") {
+        @Override
+        HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random) {
+            return get(base.resolve("/api/tasks/" + user.randomTask(random)));
+        }
+    },
+    TOP_TASKS("topTasks") {
+        @Override
+        HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random) {
+            return get(base.resolve("/api/tasks/top?userId=" + user.id()));
+        }
+    },
+    ADD_TASK("addTask") {
+        @Override
+        HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random) {
+            return post(base.resolve("/api/projects/" + user.randomProject(random) + "/tasks?userId=" + user.id()),
+                    "{\"title\":\"Load task\",\"status\":\"TODO\",\"priority\":" + (random.nextInt(10) + 1) + "}");
+        }
+    },
+    PATCH_TASK("patchTask") {
+        @Override
+        HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(base.resolve("/api/tasks/" + user.randomTask(random)))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"status\":\"IN_PROGRESS\",\"priority\":" + (random.nextInt(10) + 1) + "}"))
+                    .build();
+        }
+    };
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    abstract HttpRequest request(URI base, SeedData.SeededUser user, ThreadLocalRandom random);
+
+    static Endpoint byName(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equalsIgnoreCase(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + key);
+    }
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).GET().build();
+    }
+
+    private static HttpRequest post(URI uri, String json) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
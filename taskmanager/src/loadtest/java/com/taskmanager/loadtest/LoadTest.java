@@ -0,0 +1,275 @@
+package com.taskmanager.loadtest;
+
+import com.taskmanager.TaskmanagerApplication;
+import com.taskmanager.service.TMSService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boots the application on an in-memory H2 database, seeds it, and drives a weighted mix of
+ * endpoints from {@code load.clients} closed-loop clients. Latencies are recorded per endpoint
+ * in microseconds; each run writes {@code <endpoint>.hgrm} percentile distributions and a
+ * {@code results.json} summary (plus a timestamped copy) so runs can be diffed.
+ *
+ * <p>Clients send the next request as soon as the previous one returns, so the numbers are
+ * service times at the offered concurrency rather than latencies at a fixed arrival rate.
+ *
+ * <p>{@code load.threads} picks platform or virtual request threads for the app. Clients run
+ * on virtual threads either way, so the resident memory and platform thread counts in the
+ * report differ between modes only by what the server does.
+ */
+public final class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestConfig config;
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.endpoints = config.mix().keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += config.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+            recorders.put(endpoints[i], new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(endpoints[i], new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        if (config.users() < 1 || config.projectsPerUser() < 1 || config.tasksPerProject() < 1 || config.clients() < 1) {
+            throw new IllegalArgumentException("users, projectsPerUser, tasksPerProject and clients must be at least 1");
+        }
+        try (ConfigurableApplicationContext context = boot(config)) {
+            URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+
+            long seedStart = System.nanoTime();
+            SeedData seed = SeedData.create(context.getBean(TMSService.class), config);
+            System.out.printf("Seeded %d users, %d projects, %d tasks in %d ms%n",
+                    seed.userCount(),
+                    (long) config.users() * config.projectsPerUser(),
+                    (long) config.users() * config.projectsPerUser() * config.tasksPerProject(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            new LoadTest(config).run(base, seed);
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(LoadTestConfig config) {
+        return new SpringApplicationBuilder(TaskmanagerApplication.class)
+                // passed as arguments so they win over application.properties
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.threads.virtual.enabled=" + config.threads().equals("virtual"),
+                        "--logging.level.root=WARN");
+    }
+
+    private void run(URI base, SeedData seed) throws InterruptedException, IOException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < config.clients(); i++) {
+            clients.submit(() -> drive(http, base, seed, running));
+        }
+
+        System.out.printf("Warming up for %s with %d clients on %s threads%n", config.warmup(), config.clients(), config.threads());
+        Thread.sleep(config.warmup().toMillis());
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        System.out.printf("Measuring for %s%n", config.duration());
+        long start = System.nanoTime();
+        Thread.sleep(config.duration().toMillis());
+        Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : endpoints) {
+            histograms.put(endpoint, recorders.get(endpoint).getIntervalHistogram());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Map<String, Object> process = process(threads);
+
+        running.set(false);
+        clients.shutdown();
+        clients.awaitTermination(30, TimeUnit.SECONDS);
+
+        report(histograms, seconds, process);
+    }
+
+    // sampled at the end of the measured run, while every client is still busy
+    private static Map<String, Object> process(ThreadMXBean threads) {
+        Map<String, Object> p = new LinkedHashMap<>();
+        p.put("rssMb", procStatusMb("VmRSS:"));
+        p.put("peakRssMb", procStatusMb("VmHWM:"));
+        p.put("heapUsedMb", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0));
+        // virtual threads are not counted here, only the platform threads behind them
+        p.put("platformThreads", threads.getThreadCount());
+        p.put("peakPlatformThreads", threads.getPeakThreadCount());
+        return p;
+    }
+
+    // resident memory as the kernel sees it; null where /proc is not available
+    private static Double procStatusMb(String field) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]) / 1024.0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // not Linux
+        }
+        return null;
+    }
+
+    private void drive(HttpClient http, URI base, SeedData seed, AtomicBoolean running) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running.get()) {
+            Endpoint endpoint = pick(random);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = http.send(
+                        endpoint.request(base, seed.randomUser(random), random),
+                        HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            recorders.get(endpoint).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (!ok) {
+                errors.get(endpoint).increment();
+            }
+        }
+    }
+
+    private Endpoint pick(ThreadLocalRandom random) {
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private void report(Map<Endpoint, Histogram> histograms, double seconds, Map<String, Object> process) throws IOException {
+        Path out = config.out();
+        Files.createDirectories(out);
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        System.out.printf("%n%-14s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Endpoint endpoint : endpoints) {
+            Histogram h = histograms.get(endpoint);
+            long errorCount = errors.get(endpoint).sum();
+            total.add(h);
+            totalErrors += errorCount;
+            perEndpoint.put(endpoint.key(), summary(h, errorCount, seconds));
+            print(endpoint.key(), h, errorCount, seconds);
+            try (PrintStream hgrm = new PrintStream(out.resolve(endpoint.key() + ".hgrm").toFile())) {
+                h.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        print("total", total, totalErrors, seconds);
+        System.out.printf("%nthreads=%s rss=%s MB peak rss=%s MB platform threads=%s (peak %s)%n",
+                config.threads(), mb(process.get("rssMb")), mb(process.get("peakRssMb")),
+                process.get("platformThreads"), process.get("peakPlatformThreads"));
+
+        Map<String, Object> mix = new LinkedHashMap<>();
+        config.mix().forEach((endpoint, weight) -> mix.put(endpoint.key(), weight));
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("timestamp", Instant.now().toString());
+        run.put("users", config.users());
+        run.put("projectsPerUser", config.projectsPerUser());
+        run.put("tasksPerProject", config.tasksPerProject());
+        run.put("clients", config.clients());
+        run.put("threads", config.threads());
+        run.put("warmupSeconds", config.warmup().toSeconds());
+        run.put("durationSeconds", seconds);
+        run.put("mix", mix);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("run", run);
+        results.put("endpoints", perEndpoint);
+        results.put("total", summary(total, totalErrors, seconds));
+        results.put("process", process);
+
+        JsonMapper mapper = JsonMapper.builder().build();
+        String json = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(results);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Files.writeString(out.resolve("results.json"), json);
+        Files.writeString(out.resolve("results-" + stamp + ".json"), json);
+        System.out.printf("%nReports written to %s%n", out.toAbsolutePath());
+    }
+
+    private static Map<String, Object> summary(Histogram h, long errorCount, double seconds) {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("requests", h.getTotalCount());
+        s.put("errors", errorCount);
+        s.put("throughput", h.getTotalCount() / seconds);
+        s.put("meanMs", h.getMean() / 1000.0);
+        s.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+        s.put("p95Ms", h.getValueAtPercentile(95) / 1000.0);
+        s.put("p99Ms", h.getValueAtPercentile(99) / 1000.0);
+        s.put("maxMs", h.getMaxValue() / 1000.0);
+        return s;
+    }
+
+    private static String mb(Object value) {
+        return value == null ? "n/a" : String.format("%.0f", (Double) value);
+    }
+
+    private static void print(String name, Histogram h, long errorCount, double seconds) {
+        System.out.printf("%-14s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, h.getTotalCount(), errorCount, h.getTotalCount() / seconds,
+                h.getValueAtPercentile(50) / 1000.0,
+                h.getValueAtPercentile(95) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0,
+                h.getMaxValue() / 1000.0);
+    }
+}
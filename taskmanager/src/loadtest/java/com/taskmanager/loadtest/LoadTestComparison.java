@@ -0,0 +1,79 @@
+package com.taskmanager.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Puts the {@code results.json} of two load test runs side by side, e.g. platform against
+ * virtual request threads. Arguments are {@code <label>=<report dir>} pairs, the first one
+ * being the baseline; the table goes to stdout and {@code comparison.json} next to them.
+ */
+public final class LoadTestComparison {
+
+    private static final String[][] ROWS = {
+            {"total", "throughput", "req/s"},
+            {"total", "p50Ms", "p50 ms"},
+            {"total", "p99Ms", "p99 ms"},
+            {"total", "maxMs", "max ms"},
+            {"total", "errors", "errors"},
+            {"process", "rssMb", "rss MB"},
+            {"process", "peakRssMb", "peak rss MB"},
+            {"process", "peakPlatformThreads", "platform threads"},
+    };
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Expected at least two <label>=<report dir> arguments");
+        }
+        JsonMapper mapper = JsonMapper.builder().build();
+        Map<String, JsonNode> runs = new LinkedHashMap<>();
+        Path parent = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 1) {
+                throw new IllegalArgumentException("Expected <label>=<report dir> but got: " + arg);
+            }
+            Path dir = Path.of(arg.substring(eq + 1));
+            runs.put(arg.substring(0, eq), mapper.readTree(Files.readString(dir.resolve("results.json"))));
+            parent = dir.toAbsolutePath().getParent();
+        }
+
+        String baseline = runs.keySet().iterator().next();
+        JsonNode first = runs.get(baseline).path("run");
+        System.out.printf("%n%d clients, %d users, %.0f s measured%n",
+                first.path("clients").asInt(), first.path("users").asInt(), first.path("durationSeconds").asDouble());
+        System.out.printf("%-18s", "");
+        runs.keySet().forEach(label -> System.out.printf(" %14s", label));
+        System.out.println();
+
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        for (String[] row : ROWS) {
+            System.out.printf("%-18s", row[2]);
+            Map<String, Object> values = new LinkedHashMap<>();
+            JsonNode base = runs.get(baseline).path(row[0]).path(row[1]);
+            for (Map.Entry<String, JsonNode> run : runs.entrySet()) {
+                JsonNode value = run.getValue().path(row[0]).path(row[1]);
+                values.put(run.getKey(), value.isNumber() ? value.asDouble() : null);
+                if (!value.isNumber()) {
+                    System.out.printf(" %14s", "n/a");
+                } else if (run.getKey().equals(baseline) || !base.isNumber() || base.asDouble() == 0) {
+                    System.out.printf(" %14.1f", value.asDouble());
+                } else {
+                    System.out.printf(" %7.1f %+5.0f%%", value.asDouble(), (value.asDouble() / base.asDouble() - 1) * 100);
+                }
+            }
+            System.out.println();
+            comparison.put(row[0] + "." + row[1], values);
+        }
+
+        Path out = parent.resolve("comparison.json");
+        Files.writeString(out, mapper.writerWithDefaultPrettyPrinter().writeValueAsString(comparison));
+        System.out.printf("%nComparison written to %s%n", out);
+    }
+}
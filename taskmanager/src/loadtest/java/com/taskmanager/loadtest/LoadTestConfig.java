@@ -0,0 +1,93 @@
+package com.taskmanager.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Knobs for a load test run, read from {@code load.*} system properties. The Gradle
+ * {@code loadTest} task forwards {@code -Pload.<key>=<value>} here.
+ *
+ * <pre>
+ * load.users             users to seed (default 100)
+ * load.projectsPerUser   projects per user (default 5)
+ * load.tasksPerProject   tasks per project (default 200)
+ * load.clients           concurrent clients (default 32)
+ * load.warmup            warmup before recording, e.g. 10s (default 10s)
+ * load.duration          measured run, e.g. 60s or 2m (default 30s)
+ * load.mix               endpoint weights, e.g. getTask:40,listProjects:20 (default below)
+ * load.threads           request threads of the app: platform or virtual (default platform)
+ * load.out               report directory (default build/reports/loadtest)
+ * </pre>
+ */
+record LoadTestConfig(int users,
+                      int projectsPerUser,
+                      int tasksPerProject,
+                      int clients,
+                      Duration warmup,
+                      Duration duration,
+                      Map<Endpoint, Integer> mix,
+                      String threads,
+                      Path out) {
+
+    static final String DEFAULT_MIX =
+            "login:5,listProjects:15,projectTasks:25,getTask:30,topTasks:10,addTask:5,patchTask:10";
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                intProp("load.users", 100),
+                intProp("load.projectsPerUser", 5),
+                intProp("load.tasksPerProject", 200),
+                intProp("load.clients", 32),
+                duration(System.getProperty("load.warmup", "10s")),
+                duration(System.getProperty("load.duration", "30s")),
+                mix(System.getProperty("load.mix", DEFAULT_MIX)),
+                threads(System.getProperty("load.threads", "platform")),
+                Path.of(System.getProperty("load.out", "build/reports/loadtest")));
+    }
+
+    private static int intProp(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    static String threads(String value) {
+        String v = value.trim().toLowerCase();
+        if (!v.equals("platform") && !v.equals("virtual")) {
+            throw new IllegalArgumentException("load.threads must be platform or virtual but was: " + value);
+        }
+        return v;
+    }
+
+    static Duration duration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        long amount = Long.parseLong(v.substring(0, v.length() - 1));
+        return switch (v.charAt(v.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration: " + value);
+        };
+    }
+
+    static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected <endpoint>:<weight> but got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.byName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Endpoint mix is empty: " + value);
+        }
+        return weights;
+    }
+}
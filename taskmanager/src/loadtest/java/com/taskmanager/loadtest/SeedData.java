@@ -0,0 +1,90 @@
+package com.taskmanager.loadtest;
+
+import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.dto.UserDTO;
+import com.taskmanager.service.TMSService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Users, projects and tasks created through {@link TMSService} before the run starts, so the
+ * data goes through the same validation and id generation as real traffic.
+ */
+final class SeedData {
+
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+    private static final int TASKS_PER_CALL = 1000;
+
+    record SeededUser(long id, String name, String email, long[] projectIds, long[] taskIds) {
+
+        long randomProject(ThreadLocalRandom random) {
+            return projectIds[random.nextInt(projectIds.length)];
+        }
+
+        long randomTask(ThreadLocalRandom random) {
+            return taskIds[random.nextInt(taskIds.length)];
+        }
+    }
+
+    private final List<SeededUser> users;
+
+    private SeedData(List<SeededUser> users) {
+        this.users = users;
+    }
+
+    SeededUser randomUser(ThreadLocalRandom random) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    int userCount() {
+        return users.size();
+    }
+
+    static SeedData create(TMSService service, LoadTestConfig config) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<SeededUser> users = new ArrayList<>(config.users());
+        for (int u = 0; u < config.users(); u++) {
+            UserDTO user = new UserDTO();
+            user.setName("load" + u);
+            user.setEmail("load" + u + "@example.com");
+            service.registerUser(user);
+            long userId = service.loginUser(user).getId();
+
+            long[] projectIds = new long[config.projectsPerUser()];
+            List<Long> taskIds = new ArrayList<>(config.projectsPerUser() * config.tasksPerProject());
+            for (int p = 0; p < config.projectsPerUser(); p++) {
+                ProjectDTO project = new ProjectDTO();
+                project.setTitle("Load project " + u + "-" + p);
+                project.setStartDate(LocalDate.now());
+                project.setUserId(userId);
+                service.createProjectForExistingUser(project);
+            }
+            List<ProjectDTO> projects = service.getProjectsByUserId(userId);
+            for (int p = 0; p < projects.size(); p++) {
+                long projectId = projects.get(p).getId();
+                projectIds[p] = projectId;
+                for (int done = 0; done < config.tasksPerProject(); done += TASKS_PER_CALL) {
+                    int n = Math.min(TASKS_PER_CALL, config.tasksPerProject() - done);
+                    List<TasksDTO> batch = new ArrayList<>(n);
+                    for (int t = 0; t < n; t++) {
+                        TasksDTO task = new TasksDTO();
+                        task.setTitle("Task " + (done + t));
+                        task.setDescription("Seeded by the load test");
+                        task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                        task.setPriority(random.nextInt(10) + 1);
+                        task.setDueDate(LocalDate.now().plusDays(random.nextInt(90)));
+                        batch.add(task);
+                    }
+                    taskIds.addAll(service.addTasksToProjectForUser(projectId, userId, batch).getIds());
+                }
+            }
+            users.add(new SeededUser(userId, user.getName(), user.getEmail(), projectIds,
+                    taskIds.stream().mapToLong(Long::longValue).toArray()));
+        }
+        return new SeedData(users);
+    }
+}
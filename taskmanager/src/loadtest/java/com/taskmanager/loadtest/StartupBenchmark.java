@@ -0,0 +1,226 @@
+package com.taskmanager.loadtest;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the application again and again until it logs that it is ready, once per launch mode:
+ * the boot jar as built, the extracted jar, the extracted jar with Spring AOT, and that plus the
+ * CDS archive (the Gradle {@code cdsArchive} task). Every start gets a fresh in-memory H2
+ * database, so migrations run each time, the same in every mode.
+ *
+ * <pre>
+ * startup.runs      starts per mode (default 10)
+ * startup.jar       the boot jar
+ * startup.dir       directory cdsArchive extracted the jar to, holding application.jsa
+ * startup.args      extra application arguments, space-separated, e.g. to use another database
+ * startup.out       report directory (default build/reports/startup)
+ * </pre>
+ *
+ * <p>{@code process running for} in Boot's startup line is measured from JVM start, so it covers
+ * class loading and the JVM's own boot; wall time adds process creation. Resident memory is
+ * sampled once the application is ready.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED =
+            Pattern.compile("Started \\w+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final long START_TIMEOUT_SECONDS = 120;
+
+    private record Mode(String name, Path workingDir, List<String> jvmArgs, String jar) {
+    }
+
+    private record Sample(double startedSeconds, double processSeconds, double wallSeconds, Double rssMb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "10").trim());
+        Path jar = Path.of(required("startup.jar")).toAbsolutePath();
+        Path dir = Path.of(required("startup.dir")).toAbsolutePath();
+        Path out = Path.of(System.getProperty("startup.out", "build/reports/startup"));
+        String extra = System.getProperty("startup.args", "").trim();
+        if (runs < 1) {
+            throw new IllegalArgumentException("startup.runs must be at least 1");
+        }
+        if (!Files.exists(dir.resolve("application.jsa"))) {
+            throw new IllegalArgumentException("No CDS archive in " + dir + "; run the cdsArchive task first");
+        }
+
+        String extracted = jar.getFileName().toString();
+        List<Mode> modes = List.of(
+                new Mode("jar", jar.getParent(), List.of(), jar.toString()),
+                new Mode("extracted", dir, List.of(), extracted),
+                new Mode("aot", dir, List.of("-Dspring.aot.enabled=true"), extracted),
+                new Mode("cds+aot", dir, List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"), extracted));
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        if (!extra.isEmpty()) {
+            appArgs.addAll(Arrays.asList(extra.split("\\s+")));
+        }
+
+        String java = ProcessHandle.current().info().command()
+                .orElseThrow(() -> new IllegalStateException("Cannot tell which java runs this benchmark"));
+        Map<String, List<Sample>> samples = new LinkedHashMap<>();
+        for (Mode mode : modes) {
+            List<Sample> modeSamples = new ArrayList<>();
+            // one discarded start warms the page cache for the jar and the archive
+            start(java, mode, appArgs, 0);
+            for (int i = 1; i <= runs; i++) {
+                modeSamples.add(start(java, mode, appArgs, i));
+            }
+            samples.put(mode.name(), modeSamples);
+            System.out.printf("%-10s %s%n", mode.name(), summary(modeSamples));
+        }
+        report(samples, runs, out);
+    }
+
+    private static Sample start(String java, Mode mode, List<String> appArgs, int run) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(mode.jvmArgs());
+        command.add("-jar");
+        command.add(mode.jar());
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup-" + run + ";DB_CLOSE_DELAY=-1");
+        command.addAll(appArgs);
+
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.workingDir().toFile())
+                .redirectErrorStream(true)
+                .start();
+        try (BufferedReader log = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            long deadline = begin + TimeUnit.SECONDS.toNanos(START_TIMEOUT_SECONDS);
+            List<String> tail = new ArrayList<>();
+            String line;
+            while ((line = log.readLine()) != null && System.nanoTime() < deadline) {
+                Matcher m = STARTED.matcher(line);
+                if (m.find()) {
+                    double wall = (System.nanoTime() - begin) / 1e9;
+                    Double rss = rssMb(process.pid());
+                    return new Sample(Double.parseDouble(m.group(1)), Double.parseDouble(m.group(2)), wall, rss);
+                }
+                tail.add(line);
+                if (tail.size() > 40) {
+                    tail.remove(0);
+                }
+            }
+            throw new IllegalStateException("Mode " + mode.name() + " did not start within "
+                    + START_TIMEOUT_SECONDS + " s:\n" + String.join("\n", tail));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // the started process's resident memory; null where /proc is not available
+    private static Double rssMb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/" + pid + "/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring("VmRSS:".length()).trim().split("\\s+")[0]) / 1024.0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // not Linux
+        }
+        return null;
+    }
+
+    private static void report(Map<String, List<Sample>> samples, int runs, Path out) throws IOException {
+        Files.createDirectories(out);
+        double baseline = median(samples.values().iterator().next(), Sample::processSeconds);
+
+        System.out.printf("%n%-10s %12s %12s %12s %12s %10s %9s%n",
+                "mode", "started s", "process s", "p90 proc s", "wall s", "rss MB", "vs jar");
+        Map<String, Object> modes = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Sample>> entry : samples.entrySet()) {
+            List<Sample> s = entry.getValue();
+            double process = median(s, Sample::processSeconds);
+            Double rss = s.get(0).rssMb() == null ? null : median(s, Sample::rssMb);
+            System.out.printf("%-10s %12.3f %12.3f %12.3f %12.3f %10s %+8.0f%%%n",
+                    entry.getKey(), median(s, Sample::startedSeconds), process,
+                    percentile(s, Sample::processSeconds, 90), median(s, Sample::wallSeconds),
+                    rss == null ? "n/a" : String.format("%.0f", rss), (process / baseline - 1) * 100);
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("startedSecondsMedian", median(s, Sample::startedSeconds));
+            m.put("processSecondsMedian", process);
+            m.put("processSecondsMin", percentile(s, Sample::processSeconds, 0));
+            m.put("processSecondsP90", percentile(s, Sample::processSeconds, 90));
+            m.put("wallSecondsMedian", median(s, Sample::wallSeconds));
+            m.put("rssMbMedian", rss);
+            m.put("samples", s);
+            modes.put(entry.getKey(), m);
+        }
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("timestamp", Instant.now().toString());
+        run.put("runsPerMode", runs);
+        run.put("java", System.getProperty("java.version"));
+        run.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("run", run);
+        results.put("modes", modes);
+
+        String json = JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValueAsString(results);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Files.writeString(out.resolve("results.json"), json);
+        Files.writeString(out.resolve("results-" + stamp + ".json"), json);
+        System.out.printf("%nReports written to %s%n", out.toAbsolutePath());
+    }
+
+    private interface Metric {
+        double of(Sample sample);
+    }
+
+    private static double median(List<Sample> samples, Metric metric) {
+        return percentile(samples, metric, 50);
+    }
+
+    private static double percentile(List<Sample> samples, Metric metric, int percentile) {
+        List<Double> values = new ArrayList<>();
+        for (Sample s : samples) {
+            values.add(metric.of(s));
+        }
+        Collections.sort(values);
+        int index = (int) Math.ceil(percentile / 100.0 * values.size()) - 1;
+        return values.get(Math.max(0, Math.min(index, values.size() - 1)));
+    }
+
+    private static String required(String key) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(key + " is required");
+        }
+        return value;
+    }
+
+    private static String summary(List<Sample> samples) {
+        return String.format("%d starts, median %.3f s since JVM start",
+                samples.size(), median(samples, Sample::processSeconds));
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskmanager.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * normalized user name -> the user's id, name and email, so a burst of logins (every
+ * client re-authenticating after a deploy) is answered without a users lookup each.
+ * Users are never renamed or deleted, so entries only leave by size or age.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    public record CachedUser(Long id, String name, String email) {
+    }
+
+    private final ReadThroughCache<String, CachedUser> users;
+
+    @Autowired
+    public AuthenticatedUserCache(@Value("${tms.login-cache.max-size:10000}") int maxSize,
+                                  @Value("${tms.login-cache.ttl:10m}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    AuthenticatedUserCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.users = new ReadThroughCache<>(maxSize, ttl, clock);
+    }
+
+    /**
+     * Returns the user with this normalized name, asking {@code loader} on a miss or after the entry expired.
+     */
+    public Optional<CachedUser> get(String normalizedName, Function<String, Optional<CachedUser>> loader) {
+        return users.get(normalizedName, loader);
+    }
+
+    public void invalidate(String normalizedName) {
+        users.invalidate(normalizedName);
+    }
+
+    public CacheStats stats() {
+        return users.stats();
+    }
+}
@@ -0,0 +1,20 @@
+package com.taskmanager.cache;
+
+/**
+ * Hibernate second-level cache regions, shared by the entity mappings, the repository
+ * query hints and the cache manager that creates them (see SecondLevelCacheConfig).
+ */
+public final class CacheRegions {
+
+    public static final String PROJECTS = "projects";
+    public static final String USERS = "users";
+    // query results of the per-user project lookups
+    public static final String PROJECTS_BY_USER = "projectsByUser";
+
+    // Hibernate's own regions for queries without a region hint and for table modification times
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,13 @@
+package com.taskmanager.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record CacheStats(long size, long hits, long misses, long evictions) {
+
+    // part of the /api/cache/stats response, not only a convenience for callers
+    @JsonProperty
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskmanager.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * projectId -> ownerId for the ownership checks in front of every project-scoped
+ * operation. Bounded by size (least recently used goes first) and by age.
+ */
+@Component
+public class ProjectOwnerCache {
+
+    private final ReadThroughCache<Long, Long> owners;
+
+    @Autowired
+    public ProjectOwnerCache(@Value("${tms.ownership-cache.max-size:10000}") int maxSize,
+                             @Value("${tms.ownership-cache.ttl:5m}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    ProjectOwnerCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.owners = new ReadThroughCache<>(maxSize, ttl, clock);
+    }
+
+    /**
+     * Returns the owner of a live project, asking {@code loader} on a miss or after the entry expired.
+     */
+    public Optional<Long> ownerOf(Long projectId, Function<Long, Optional<Long>> loader) {
+        return owners.get(projectId, loader);
+    }
+
+    public void invalidate(Long projectId) {
+        owners.invalidate(projectId);
+    }
+
+    public CacheStats stats() {
+        return owners.stats();
+    }
+}
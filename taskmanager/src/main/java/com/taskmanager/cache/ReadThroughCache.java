@@ -0,0 +1,97 @@
+package com.taskmanager.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Size- and age-bounded read-through map. Least recently used entries go first once
+ * {@code maxSize} is reached; entries older than {@code ttl} are reloaded.
+ * <p>
+ * A value loaded while the same key was being invalidated is discarded rather than
+ * kept, so a reader that raced a committed write never pins the old value.
+ */
+public class ReadThroughCache<K, V> {
+
+    private static final int STRIPES = 64;
+
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ReadThroughCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= maxSize) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Returns the cached value, calling {@code loader} on a miss or after the entry expired.
+     * Empty results are not cached.
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long now = clock.getAsLong();
+        Entry<V> cached = entries.get(key);
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            hits.incrementAndGet();
+            return Optional.of(cached.value);
+        }
+        misses.incrementAndGet();
+        long generation = generations.get(stripe(key));
+        Optional<V> value = loader.apply(key);
+        if (value.isEmpty()) {
+            entries.remove(key);
+            return value;
+        }
+        Entry<V> loaded = new Entry<>(value.get(), now);
+        entries.put(key, loaded);
+        if (generations.get(stripe(key)) != generation) entries.remove(key, loaded);
+        return value;
+    }
+
+    public void invalidate(K key) {
+        if (key == null) return;
+        generations.incrementAndGet(stripe(key));
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry whose value matches. Walks the whole cache, so it is meant for
+     * rare, wide invalidations such as deleting a project.
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        for (int i = 0; i < STRIPES; i++) generations.incrementAndGet(i);
+        synchronized (entries) {
+            entries.values().removeIf(e -> predicate.test(e.value));
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(entries.size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.taskmanager.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-region numbers for the Hibernate second-level cache. With Hibernate statistics on, hits and
+ * misses are Hibernate's, so an entry that is locked by a concurrent write counts as a miss;
+ * otherwise they are the Caffeine cache's, which counts any entry found. Size and evictions always
+ * come from the Caffeine cache behind the region.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    private final Statistics statistics;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory, CacheManager secondLevelCacheManager) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.cacheManager = secondLevelCacheManager;
+    }
+
+    /**
+     * Stats for every entity and query region, keyed {@code l2.<region>}.
+     */
+    public Map<String, CacheStats> regions() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("l2." + CacheRegions.PROJECTS, projects());
+        stats.put("l2." + CacheRegions.USERS, users());
+        stats.put("l2." + CacheRegions.PROJECTS_BY_USER, projectsByUser());
+        return stats;
+    }
+
+    public CacheStats projects() {
+        return stats(CacheRegions.PROJECTS, statistics.getDomainDataRegionStatistics(CacheRegions.PROJECTS));
+    }
+
+    public CacheStats users() {
+        return stats(CacheRegions.USERS, statistics.getDomainDataRegionStatistics(CacheRegions.USERS));
+    }
+
+    public CacheStats projectsByUser() {
+        // null until the first query against the region creates it
+        return stats(CacheRegions.PROJECTS_BY_USER, statistics.getQueryRegionStatistics(CacheRegions.PROJECTS_BY_USER));
+    }
+
+    private CacheStats stats(String region, CacheRegionStatistics hibernate) {
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = cacheManager.getCache(region)
+                .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        com.github.benmanes.caffeine.cache.stats.CacheStats caffeine = cache.stats();
+        if (!statistics.isStatisticsEnabled()) {
+            return new CacheStats(cache.estimatedSize(), caffeine.hitCount(), caffeine.missCount(), caffeine.evictionCount());
+        }
+        return new CacheStats(
+                cache.estimatedSize(),
+                hibernate == null ? 0 : hibernate.getHitCount(),
+                hibernate == null ? 0 : hibernate.getMissCount(),
+                caffeine.evictionCount());
+    }
+}
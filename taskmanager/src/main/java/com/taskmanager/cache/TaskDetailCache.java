@@ -0,0 +1,54 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.dto.TasksDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * taskId -> TasksDTO behind GET /api/tasks/{id}. Every task write path invalidates the
+ * ids it touched after commit; the TTL only bounds how long an entry can outlive a
+ * write made by another node.
+ */
+@Component
+public class TaskDetailCache {
+
+    private final ReadThroughCache<Long, TasksDTO> tasks;
+
+    @Autowired
+    public TaskDetailCache(@Value("${tms.task-cache.max-size:10000}") int maxSize,
+                           @Value("${tms.task-cache.ttl:10m}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    TaskDetailCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.tasks = new ReadThroughCache<>(maxSize, ttl, clock);
+    }
+
+    public Optional<TasksDTO> get(Long taskId, Function<Long, Optional<TasksDTO>> loader) {
+        return tasks.get(taskId, loader);
+    }
+
+    public void invalidate(Long taskId) {
+        tasks.invalidate(taskId);
+    }
+
+    public void invalidateAll(Collection<Long> taskIds) {
+        taskIds.forEach(tasks::invalidate);
+    }
+
+    public void invalidateProject(Long projectId) {
+        tasks.invalidateIf(t -> t.getProjectDTO() != null && Objects.equals(t.getProjectDTO().getId(), projectId));
+    }
+
+    public CacheStats stats() {
+        return tasks.stats();
+    }
+}
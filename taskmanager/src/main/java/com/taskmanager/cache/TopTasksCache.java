@@ -0,0 +1,160 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.dto.TasksDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+/**
+ * Per-user top-K of tasks by priority, kept up to date by the task write paths.
+ * <p>
+ * Each user holds at most {@code capacity} tasks ordered by (priority desc, id asc),
+ * the same order the database query uses. When a write leaves a hole that only the
+ * database could fill (a cached task is deleted or drops out of the top K) the user's
+ * entry is dropped and reloaded on the next read.
+ */
+@Component
+public class TopTasksCache {
+
+    public static final Comparator<TasksDTO> ORDER = Comparator
+            .comparing(TasksDTO::getPriority, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TasksDTO::getId);
+
+    private static final int STRIPES = 64;
+
+    private final int capacity;
+    private final Map<Long, UserTop> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TopTasksCache(@Value("${tms.top-tasks.cache-size:20}") int capacity,
+                         @Value("${tms.top-tasks.max-users:10000}") int maxUsers) {
+        if (capacity < 1) throw new IllegalArgumentException("tms.top-tasks.cache-size must be >= 1");
+        this.capacity = capacity;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserTop> eldest) {
+                if (size() <= maxUsers) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        });
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the first {@code n} tasks for the user, calling {@code loader} with the
+     * number of rows to read when the user is not cached or {@code n} exceeds the capacity.
+     */
+    public List<TasksDTO> top(Long userId, int n, IntFunction<List<TasksDTO>> loader) {
+        if (n > capacity) return loader.apply(n);
+        UserTop top = entries.get(userId);
+        if (top != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            long generation = generations.get(stripe(userId));
+            List<TasksDTO> rows = loader.apply(capacity);
+            top = new UserTop(rows, rows.size() < capacity);
+            entries.put(userId, top);
+            // a write committed while we were loading may not be in rows; let the next read reload
+            if (generations.get(stripe(userId)) != generation) entries.remove(userId, top);
+        }
+        return top.first(n);
+    }
+
+    public boolean isCached(Long userId) {
+        return userId != null && entries.containsKey(userId);
+    }
+
+    public void onTaskSaved(Long userId, TasksDTO task) {
+        if (userId == null || task == null || task.getId() == null) return;
+        generations.incrementAndGet(stripe(userId));
+        UserTop top = entries.get(userId);
+        if (top != null && !top.upsert(task)) entries.remove(userId, top);
+    }
+
+    public void onTaskDeleted(Long userId, Long taskId) {
+        if (userId == null || taskId == null) return;
+        generations.incrementAndGet(stripe(userId));
+        UserTop top = entries.get(userId);
+        if (top != null && !top.remove(taskId)) entries.remove(userId, top);
+    }
+
+    public void evictUser(Long userId) {
+        if (userId == null) return;
+        generations.incrementAndGet(stripe(userId));
+        entries.remove(userId);
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(entries.size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId.hashCode(), STRIPES);
+    }
+
+    private final class UserTop {
+        private final TreeSet<TasksDTO> ranked = new TreeSet<>(ORDER);
+        private final Map<Long, TasksDTO> byId = new HashMap<>();
+        // true when ranked holds every task the user owns, so removals leave no hole
+        private boolean complete;
+
+        UserTop(List<TasksDTO> rows, boolean complete) {
+            for (TasksDTO row : rows) {
+                ranked.add(row);
+                byId.put(row.getId(), row);
+            }
+            this.complete = complete;
+        }
+
+        synchronized List<TasksDTO> first(int n) {
+            List<TasksDTO> result = new ArrayList<>(Math.min(n, ranked.size()));
+            for (TasksDTO t : ranked) {
+                if (result.size() == n) break;
+                result.add(t);
+            }
+            return result;
+        }
+
+        synchronized boolean upsert(TasksDTO task) {
+            TasksDTO previous = byId.remove(task.getId());
+            if (previous != null) ranked.remove(previous);
+            if (!complete && !ranked.isEmpty() && ORDER.compare(task, ranked.last()) > 0) {
+                // ranks below everything we hold; fine unless it just left a hole in the top K
+                return previous == null;
+            }
+            ranked.add(task);
+            byId.put(task.getId(), task);
+            if (ranked.size() > capacity) {
+                byId.remove(ranked.pollLast().getId());
+                complete = false;
+            }
+            return true;
+        }
+
+        synchronized boolean remove(Long taskId) {
+            TasksDTO previous = byId.remove(taskId);
+            if (previous == null) return true;
+            ranked.remove(previous);
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.taskmanager.config;
+
+import com.taskmanager.datasource.ReadWriteDataSource;
+import com.taskmanager.datasource.ReadYourWrites;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The primary pool is configured as Boot would (spring.datasource.*, spring.datasource.hikari.*);
+ * the data source the application uses is a {@link ReadWriteDataSource} in front of it. Listing
+ * replicas in {@code tms.datasource.replicas.urls} sends read-only transactions to them. Replica
+ * pools copy the primary pool's settings, except for their URL, credentials and optionally size.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource,
+                          ReadYourWrites readYourWrites,
+                          ObjectProvider<MeterRegistry> meterRegistry,
+                          @Value("${tms.datasource.replicas.urls:}") List<String> urls,
+                          @Value("${tms.datasource.replicas.username:${spring.datasource.username:}}") String username,
+                          @Value("${tms.datasource.replicas.password:${spring.datasource.password:}}") String password,
+                          @Value("${tms.datasource.replicas.maximum-pool-size:0}") int maximumPoolSize) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) continue;
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("tms-replica-" + replicas.size());
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setReadOnly(true);
+            if (maximumPoolSize > 0) config.setMaximumPoolSize(maximumPoolSize);
+            // replicas are not beans, so Boot's pool metrics do not see them
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null && config.getMetricsTrackerFactory() == null && config.getMetricRegistry() == null) {
+                config.setMetricRegistry(registry);
+            }
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReadWriteDataSource(primaryDataSource, replicas, readYourWrites);
+    }
+}
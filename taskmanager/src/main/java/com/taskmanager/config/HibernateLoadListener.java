@@ -0,0 +1,47 @@
+package com.taskmanager.config;
+
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts, per thread, the entities Hibernate loads and the lazy collections it initializes, so a
+ * request can report them next to its JDBC statements. A collection fetched in its owner's query
+ * is not a separate fetch.
+ * {@link MetricsConfig} appends it to Hibernate's own listeners; it needs no
+ * {@code hibernate.generate_statistics}.
+ */
+@Component
+public class HibernateLoadListener implements PostLoadEventListener, InitializeCollectionEventListener {
+
+    private final ThreadLocal<int[]> counts = ThreadLocal.withInitial(() -> new int[2]);
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        counts.get()[0]++;
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        counts.get()[1]++;
+    }
+
+    // entities loaded on this thread since the last call
+    public int takeEntityLoadCount() {
+        return take(0);
+    }
+
+    // lazy collections initialized on this thread since the last call
+    public int takeCollectionFetchCount() {
+        return take(1);
+    }
+
+    private int take(int i) {
+        int[] c = counts.get();
+        int n = c[i];
+        c[i] = 0;
+        return n;
+    }
+}
@@ -0,0 +1,160 @@
+package com.taskmanager.config;
+
+import com.taskmanager.cache.AuthenticatedUserCache;
+import com.taskmanager.cache.CacheStats;
+import com.taskmanager.cache.ProjectOwnerCache;
+import com.taskmanager.cache.SecondLevelCacheStats;
+import com.taskmanager.cache.TaskDetailCache;
+import com.taskmanager.cache.TopTasksCache;
+import com.taskmanager.events.ChangeEventBus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.function.Function;
+
+/**
+ * Metrics that Boot does not publish on its own: JDBC statements, entity loads and lazy collection
+ * fetches per request, slow statements, the in-process and second-level caches and the change streams.
+ * Service timers, HTTP timers and the connection pool gauges come from auto-configuration, as do the
+ * Hibernate statistics when {@code tms.metrics.hibernate-statistics} turns them on.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final SqlExecutionListener sqlListener;
+    private final HibernateLoadListener loadListener;
+    private final MeterRegistry registry;
+
+    public MetricsConfig(SqlExecutionListener sqlListener, HibernateLoadListener loadListener,
+                         EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        this.sqlListener = sqlListener;
+        this.loadListener = loadListener;
+        this.registry = registry;
+        // after Hibernate's own listeners, which keep doing the loading
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getEventListenerRegistry();
+        listeners.appendListeners(EventType.POST_LOAD, loadListener);
+        listeners.appendListeners(EventType.INIT_COLLECTION, loadListener);
+    }
+
+    // static so that wrapping the data source does not pull this configuration in early; only the
+    // application's data source is wrapped, the pools behind it would count every statement twice
+    @Bean
+    static BeanPostProcessor sqlListenerDataSourceProxy(ObjectProvider<SqlExecutionListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource) && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                sqlListener.takeStatementCount();
+                loadListener.takeEntityLoadCount();
+                loadListener.takeCollectionFetchCount();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String route = uri == null ? "UNKNOWN" : uri.toString();
+                record(request, route, "tms.http.sql.statements", "JDBC statements executed while handling one request",
+                        "statements", sqlListener.takeStatementCount());
+                record(request, route, "tms.http.hibernate.entity.loads", "Entities Hibernate loaded while handling one request",
+                        "entities", loadListener.takeEntityLoadCount());
+                record(request, route, "tms.http.hibernate.collection.fetches",
+                        "Lazy collections Hibernate initialized while handling one request",
+                        "collections", loadListener.takeCollectionFetchCount());
+            }
+        });
+    }
+
+    private void record(HttpServletRequest request, String route, String name, String description, String unit, int value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(unit)
+                .tag("method", request.getMethod())
+                .tag("uri", route)
+                .register(registry)
+                .record(value);
+    }
+
+    @Bean
+    MeterBinder slowQueryMetrics() {
+        return meters -> FunctionCounter.builder("tms.sql.slow.queries", sqlListener, SqlExecutionListener::slowQueryCount)
+                .description("Statements slower than tms.sql.slow-query.threshold")
+                .register(meters);
+    }
+
+    @Bean
+    MeterBinder cacheMetrics(ProjectOwnerCache projectOwnerCache, TopTasksCache topTasksCache, TaskDetailCache taskDetailCache,
+                             AuthenticatedUserCache authenticatedUserCache, SecondLevelCacheStats secondLevelCacheStats) {
+        return meters -> {
+            bindCache(meters, "projectOwners", projectOwnerCache, ProjectOwnerCache::stats);
+            bindCache(meters, "topTasks", topTasksCache, TopTasksCache::stats);
+            bindCache(meters, "taskDetails", taskDetailCache, TaskDetailCache::stats);
+            bindCache(meters, "authenticatedUsers", authenticatedUserCache, AuthenticatedUserCache::stats);
+            bindCache(meters, "l2.projects", secondLevelCacheStats, SecondLevelCacheStats::projects);
+            bindCache(meters, "l2.users", secondLevelCacheStats, SecondLevelCacheStats::users);
+            bindCache(meters, "l2.projectsByUser", secondLevelCacheStats, SecondLevelCacheStats::projectsByUser);
+        };
+    }
+
+    @Bean
+    MeterBinder streamMetrics(ChangeEventBus changeEvents) {
+        return meters -> {
+            Gauge.builder("tms.stream.subscribers", changeEvents, ChangeEventBus::subscriberCount)
+                    .description("Open change streams")
+                    .register(meters);
+            FunctionCounter.builder("tms.stream.events", changeEvents, ChangeEventBus::publishedCount)
+                    .description("Changes published to at least one subscriber")
+                    .register(meters);
+            FunctionCounter.builder("tms.stream.overflows", changeEvents, ChangeEventBus::overflowCount)
+                    .description("Subscriber buffers that overflowed and were told to resync")
+                    .register(meters);
+            FunctionCounter.builder("tms.stream.rejected", changeEvents, ChangeEventBus::rejectedCount)
+                    .description("Streams refused at tms.stream.max-subscribers")
+                    .register(meters);
+        };
+    }
+
+    // meters hold their state weakly, so the cache beans themselves are the state rather than a lambda around them
+    private static <C> void bindCache(MeterRegistry meters, String name, C cache, Function<C, CacheStats> stats) {
+        Gauge.builder("tms.cache.size", cache, c -> stats.apply(c).size()).tag("cache", name).register(meters);
+        FunctionCounter.builder("tms.cache.hits", cache, c -> stats.apply(c).hits()).tag("cache", name).register(meters);
+        FunctionCounter.builder("tms.cache.misses", cache, c -> stats.apply(c).misses()).tag("cache", name).register(meters);
+        FunctionCounter.builder("tms.cache.evictions", cache, c -> stats.apply(c).evictions()).tag("cache", name).register(meters);
+        Gauge.builder("tms.cache.hit.ratio", cache, c -> stats.apply(c).hitRatio()).tag("cache", name).register(meters);
+    }
+}
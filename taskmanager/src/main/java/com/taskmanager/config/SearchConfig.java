@@ -0,0 +1,47 @@
+package com.taskmanager.config;
+
+import com.taskmanager.search.InMemoryTaskSearchIndex;
+import com.taskmanager.search.PostgresTaskSearchIndex;
+import com.taskmanager.search.TaskSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Picks the task search backend for the database in use: PostgreSQL full-text search, or
+ * an in-memory index loaded from the tasks table for everything else.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SearchConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchConfig.class);
+
+    // the entity manager factory is only a dependency so that the tasks table exists before the index loads
+    @Bean
+    TaskSearchIndex taskSearchIndex(DataSource dataSource, EntityManagerFactory entityManagerFactory) throws SQLException {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        if (isPostgres(dataSource)) return new PostgresTaskSearchIndex(jdbc);
+
+        InMemoryTaskSearchIndex index = new InMemoryTaskSearchIndex();
+        jdbc.query("select t.id, t.project_id, p.user_id, t.title, t.description from tasks t" +
+                        " join projects p on p.id = t.project_id where p.deleted = false",
+                rs -> {
+                    index.onTaskSaved(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4), rs.getString(5));
+                });
+        log.info("Loaded {} tasks into the in-memory search index", index.size());
+        return index;
+    }
+
+    private static boolean isPostgres(DataSource dataSource) throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            return "PostgreSQL".equals(c.getMetaData().getDatabaseProductName());
+        }
+    }
+}
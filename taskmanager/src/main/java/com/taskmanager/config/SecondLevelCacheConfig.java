@@ -0,0 +1,58 @@
+package com.taskmanager.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.taskmanager.cache.CacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the rows that are read far more often than they change:
+ * projects, users and the per-user project lookups. Each region is a Caffeine cache behind
+ * JCache with its own size and age bound. Hibernate is told to fail on a region it finds
+ * no cache for, so a new {@code @Cache} region has to be added here.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+    // one manager per application context: test suites keep several contexts alive at once
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(@Value("${tms.l2-cache.projects.max-size:10000}") long projectsMaxSize,
+                                         @Value("${tms.l2-cache.projects.ttl:30m}") Duration projectsTtl,
+                                         @Value("${tms.l2-cache.users.max-size:10000}") long usersMaxSize,
+                                         @Value("${tms.l2-cache.users.ttl:30m}") Duration usersTtl,
+                                         @Value("${tms.l2-cache.projects-by-user.max-size:10000}") long projectsByUserMaxSize,
+                                         @Value("${tms.l2-cache.projects-by-user.ttl:5m}") Duration projectsByUserTtl) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("tms-l2-" + UUID.randomUUID()), SecondLevelCacheConfig.class.getClassLoader());
+        manager.createCache(CacheRegions.PROJECTS, region(projectsMaxSize, projectsTtl));
+        manager.createCache(CacheRegions.USERS, region(usersMaxSize, usersTtl));
+        manager.createCache(CacheRegions.PROJECTS_BY_USER, region(projectsByUserMaxSize, projectsByUserTtl));
+        manager.createCache(CacheRegions.DEFAULT_QUERY_RESULTS, region(projectsByUserMaxSize, projectsByUserTtl));
+        // never bounded: a query result whose tables have no timestamp entry is taken to be current
+        manager.createCache(CacheRegions.UPDATE_TIMESTAMPS, new CaffeineConfiguration<>().setNativeStatisticsEnabled(true));
+        return manager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                .setNativeStatisticsEnabled(true);
+    }
+}
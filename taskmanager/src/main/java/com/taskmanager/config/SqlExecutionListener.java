@@ -0,0 +1,70 @@
+package com.taskmanager.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Sees every JDBC statement that goes through the proxied data source. Counts statements
+ * per thread so a request can report how many it issued, and logs statements slower than
+ * {@code tms.sql.slow-query.threshold} to the {@code com.taskmanager.sql.slow} logger.
+ * {@code tms.sql.slow-query.sample-rate} keeps that log readable when everything is slow;
+ * the slow-query counter still sees every one.
+ */
+@Component
+public class SqlExecutionListener implements QueryExecutionListener {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("com.taskmanager.sql.slow");
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final ThreadLocal<int[]> statements = ThreadLocal.withInitial(() -> new int[1]);
+    private final LongAdder slowQueries = new LongAdder();
+
+    public SqlExecutionListener(@Value("${tms.sql.slow-query.threshold:200ms}") Duration threshold,
+                                @Value("${tms.sql.slow-query.sample-rate:1.0}") double sampleRate) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        statements.get()[0]++;
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < thresholdMillis) return;
+        slowQueries.increment();
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        if (execInfo.isBatch()) {
+            slowLog.warn("Slow batch of {} took {} ms: {}", execInfo.getBatchSize(), elapsed, sql);
+        } else {
+            slowLog.warn("Slow query took {} ms: {}", elapsed, sql);
+        }
+    }
+
+    // statements run on this thread since the last call
+    public int takeStatementCount() {
+        int[] count = statements.get();
+        int n = count[0];
+        count[0] = 0;
+        return n;
+    }
+
+    public long slowQueryCount() {
+        return slowQueries.sum();
+    }
+}
@@ -1,5 +1,6 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.dto.BulkUserResponseDTO;
 import com.taskmanager.dto.ResponseDTO;
 import com.taskmanager.dto.UserDTO;
 import com.taskmanager.service.TMSService;
@@ -8,6 +9,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/auth")
@@ -22,6 +25,13 @@ public class AuthController {
         return ResponseEntity.ok(resp);
     }
 
+    // rows are validated one by one in the service so a bad row is reported instead of failing the batch
+    @PostMapping("/register/bulk")
+    public ResponseEntity<BulkUserResponseDTO> registerBulk(@RequestBody List<UserDTO> users) {
+        BulkUserResponseDTO resp = tmsService.registerUsers(users);
+        return ResponseEntity.ok(resp);
+    }
+
     @PostMapping("/login")
     public ResponseEntity<UserDTO> login(@Valid @RequestBody UserDTO credentials) {
         UserDTO user = tmsService.loginUser(credentials);
@@ -1,16 +1,37 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.cache.CacheStats;
+import com.taskmanager.dto.BulkTaskPatchDTO;
+import com.taskmanager.dto.BulkTaskResponseDTO;
+import com.taskmanager.dto.BulkUpdateResponseDTO;
+import com.taskmanager.dto.DashboardDTO;
 import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.ProjectStatusCountsDTO;
 import com.taskmanager.dto.ResponseDTO;
+import com.taskmanager.dto.TaskChangesDTO;
+import com.taskmanager.dto.TaskPageDTO;
+import com.taskmanager.dto.TaskQueryDTO;
+import com.taskmanager.dto.TaskSearchPageDTO;
 import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.events.ChangeEventBus;
+import com.taskmanager.exception.TaskVersionConflictException;
 import com.taskmanager.service.TMSService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = "ETag")
 @RestController
 @RequestMapping("/api")
 public class TMSController {
@@ -18,11 +39,20 @@ public class TMSController {
     @Autowired
     private TMSService tmsService;
 
+    @Autowired
+    private ChangeEventBus changeEvents;
+
     @GetMapping("/projects")
     public ResponseEntity<List<ProjectDTO>> listProjects(@RequestParam Long userId) {
         return ResponseEntity.ok(tmsService.getProjectsByUserId(userId));
     }
 
+    // read from the per-project counters, so the cost is independent of the number of tasks
+    @GetMapping("/projects/status-counts")
+    public ResponseEntity<List<ProjectStatusCountsDTO>> getStatusCounts(@RequestParam Long userId) {
+        return ResponseEntity.ok(tmsService.getStatusCountsForUser(userId));
+    }
+
     @PostMapping("/projects")
     public ResponseEntity<ResponseDTO> createProject(@RequestBody ProjectDTO projectDTO) {
         return ResponseEntity.ok(tmsService.createProjectForExistingUser(projectDTO));
@@ -35,10 +65,18 @@ public class TMSController {
         return ResponseEntity.ok(tmsService.addTaskToProjectForUser(projectId, userId, task));
     }
 
+    @PostMapping("/projects/{projectId}/tasks/bulk")
+    public ResponseEntity<BulkTaskResponseDTO> addTasks(@PathVariable Long projectId,
+                                                        @RequestParam Long userId,
+                                                        @RequestBody List<TasksDTO> tasks) {
+        return ResponseEntity.ok(tmsService.addTasksToProjectForUser(projectId, userId, tasks));
+    }
+
     @GetMapping("/projects/{projectId}/tasks")
-    public ResponseEntity<List<TasksDTO>> getProjectTasks(@PathVariable Long projectId,
-                                                          @RequestParam Long userId) {
-        return ResponseEntity.ok(tmsService.fetchTasksForProjectAndUser(projectId, userId));
+    public ResponseEntity<TaskPageDTO> getProjectTasks(@PathVariable Long projectId,
+                                                       @RequestParam Long userId,
+                                                       @ModelAttribute TaskQueryDTO query) {
+        return ResponseEntity.ok(tmsService.fetchTaskPageForProjectAndUser(projectId, userId, query));
     }
 
     @DeleteMapping("/projects/{projectId}")
@@ -48,20 +86,35 @@ public class TMSController {
     }
 
     @GetMapping("/tasks/{id}")
-    public ResponseEntity<TasksDTO> getTask(@PathVariable Long id) {
-        return ResponseEntity.ok(tmsService.fetchTaskById(id));
+    public ResponseEntity<TasksDTO> getTask(@PathVariable Long id,
+                                            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        TasksDTO task = tmsService.fetchTaskById(id);
+        String etag = etagOf(task.getId(), task.getVersion());
+        if (etag == null) return ResponseEntity.ok(task);
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(task);
     }
 
     @PutMapping("/tasks/{id}")
     public ResponseEntity<ResponseDTO> updateTask(@PathVariable Long id,
+                                                  @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                   @RequestBody TasksDTO task) {
-        return ResponseEntity.ok(tmsService.updateTask(task, id));
+        return writeTask(id, ifMatch, () -> tmsService.updateTask(task, id), version -> tmsService.updateTask(task, id, version));
     }
 
     @PatchMapping("/tasks/{id}")
     public ResponseEntity<ResponseDTO> partialUpdateTask(@PathVariable Long id,
+                                                         @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                          @RequestBody TasksDTO task) {
-        return ResponseEntity.ok(tmsService.partialUpdateTask(id, task));
+        return writeTask(id, ifMatch, () -> tmsService.partialUpdateTask(id, task), version -> tmsService.partialUpdateTask(id, task, version));
+    }
+
+    @PatchMapping("/tasks")
+    public ResponseEntity<BulkUpdateResponseDTO> bulkPatchTasks(@RequestParam Long userId,
+                                                                @RequestBody BulkTaskPatchDTO patch) {
+        return ResponseEntity.ok(tmsService.bulkPatchTasks(userId, patch));
     }
 
     @DeleteMapping("/tasks/{id}")
@@ -69,8 +122,104 @@ public class TMSController {
         return ResponseEntity.ok(tmsService.deleteTask(id));
     }
 
+    @GetMapping("/tasks/search")
+    public ResponseEntity<TaskSearchPageDTO> searchTasks(@RequestParam Long userId,
+                                                         @RequestParam String q,
+                                                         @RequestParam(required = false) Integer offset,
+                                                         @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(tmsService.searchTasksForUser(userId, q, offset, limit));
+    }
+
+    // delta sync: pass the returned watermark back as since; cost follows the changes, not the task count
+    @GetMapping("/tasks/changes")
+    public ResponseEntity<TaskChangesDTO> getTaskChanges(@RequestParam Long userId,
+                                                         @RequestParam(required = false) String since,
+                                                         @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(tmsService.getTaskChangesForUser(userId, since, limit));
+    }
+
+    @GetMapping(value = "/tasks/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam Long userId) {
+        StreamingResponseBody body = out -> tmsService.exportTasksForUser(userId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // everything the dashboard shows in one round trip, instead of one tasks request per project
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardDTO> getDashboard(@RequestParam Long userId,
+                                                     @RequestParam(defaultValue = "3") int upcoming) {
+        return ResponseEntity.ok(tmsService.getDashboardForUser(userId, upcoming));
+    }
+
     @GetMapping("/tasks/top")
-    public ResponseEntity<List<TasksDTO>> getTopTasks(@RequestParam Long userId) {
-        return ResponseEntity.ok(tmsService.getTopFivePriorityTasksForUser(userId));
+    public ResponseEntity<List<TasksDTO>> getTopTasks(@RequestParam Long userId,
+                                                      @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(tmsService.getTopPriorityTasksForUser(userId, limit));
+    }
+
+    // committed changes to the user's projects and tasks; a reconnect (Last-Event-ID) starts with resync
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam Long userId,
+                                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = changeEvents.subscribe(userId, lastEventId != null);
+        if (emitter == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store").body(emitter);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(tmsService.getCacheStats());
+    }
+
+    // without If-Match (or with *) the write is unconditional; otherwise it only applies to the
+    // version named in the tag, and the response carries the ETag of the version it wrote
+    private ResponseEntity<ResponseDTO> writeTask(Long id, String ifMatch, Supplier<ResponseDTO> unconditional,
+                                                  LongFunction<ResponseDTO> conditional) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return ResponseEntity.ok(unconditional.get());
+        Long version = versionIn(ifMatch, id);
+        if (version == null) return preconditionFailed("If-Match does not name a version of task " + id);
+        try {
+            ResponseDTO resp = conditional.apply(version);
+            return ResponseEntity.ok().eTag(etagOf(id, version + 1)).body(resp);
+        } catch (TaskVersionConflictException e) {
+            return preconditionFailed(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<ResponseDTO> preconditionFailed(String message) {
+        ResponseDTO resp = new ResponseDTO();
+        resp.setMessage(message);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(resp);
+    }
+
+    // every write path bumps the version column, so (id, version) identifies one state of a task
+    private static String etagOf(Long id, Long version) {
+        if (id == null || version == null) return null;
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // If-Match uses strong comparison, so weak tags never match
+    private static Long versionIn(String ifMatch, Long id) {
+        String prefix = "\"" + id + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) continue;
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not one of ours; try the next tag
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,66 @@
+package com.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The application's data source. Connections are handed out lazily, so a transaction that
+ * never runs a statement (one answered from the caches) never takes one from a pool, and the
+ * pool is picked once the transaction's read-only flag is known: read-only transactions go
+ * round-robin to the replicas unless {@link ReadYourWrites} pins them to the primary,
+ * everything else goes to the primary. Without replicas this is only the lazy proxy.
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final List<HikariDataSource> replicas;
+
+    public ReadWriteDataSource(DataSource primary, List<HikariDataSource> replicas, ReadYourWrites readYourWrites) {
+        super(primary);
+        this.replicas = List.copyOf(replicas);
+        if (!this.replicas.isEmpty()) setReadOnlyDataSource(new ReplicaRouter(primary, this.replicas, readYourWrites));
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    // the primary pool is a bean of its own and closed by the container
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private static final class ReplicaRouter extends AbstractRoutingDataSource {
+
+        private static final String PRIMARY = "primary";
+
+        private final int replicaCount;
+        private final ReadYourWrites readYourWrites;
+        private final AtomicInteger next = new AtomicInteger();
+
+        ReplicaRouter(DataSource primary, List<? extends DataSource> replicas, ReadYourWrites readYourWrites) {
+            this.replicaCount = replicas.size();
+            this.readYourWrites = readYourWrites;
+            Map<Object, Object> targets = new HashMap<>();
+            targets.put(PRIMARY, primary);
+            for (int i = 0; i < replicas.size(); i++) targets.put(i, replicas.get(i));
+            setTargetDataSources(targets);
+            setLenientFallback(false);
+            afterPropertiesSet();
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (readYourWrites.isPrimaryRequired()) return PRIMARY;
+            return Math.floorMod(next.getAndIncrement(), replicaCount);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskmanager.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides when a read-only transaction may not use a replica. A user who committed a write in
+ * the last {@code tms.datasource.read-your-writes} reads from the primary, so a replica that
+ * has not caught up yet never shows them their own data from before the write. The window
+ * should exceed the replicas' usual lag; since every project and task belongs to one user,
+ * that also keeps stale rows out of the per-user caches.
+ * <p>
+ * The choice is bound to the current transaction and must be made before its first query:
+ * the connection is only taken from a pool when the first statement runs.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final long windowNanos;
+    private final LongSupplier clock;
+    // user id -> time of the last committed write; the least recent writers go first
+    private final Map<Long, Long> lastWrite;
+    private final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    @Autowired
+    public ReadYourWrites(@Value("${tms.datasource.read-your-writes:5s}") Duration window,
+                          @Value("${tms.datasource.read-your-writes-max-users:100000}") int maxUsers) {
+        this(window, maxUsers, System::nanoTime);
+    }
+
+    ReadYourWrites(Duration window, int maxUsers, LongSupplier clock) {
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+        this.lastWrite = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    /**
+     * Call once the write is committed.
+     */
+    public void recordWrite(Long userId) {
+        if (userId == null || windowNanos <= 0) return;
+        lastWrite.put(userId, clock.getAsLong());
+    }
+
+    /**
+     * Sends the current transaction to the primary if the user wrote within the window.
+     */
+    public void readingFor(Long userId) {
+        if (userId == null) return;
+        Long writtenAt = lastWrite.get(userId);
+        if (writtenAt != null && clock.getAsLong() - writtenAt < windowNanos) readFromPrimary();
+    }
+
+    /**
+     * Sends the current transaction to the primary. Outside a transaction there is nothing to
+     * route: non-transactional reads are not marked read-only and use the primary anyway.
+     */
+    public void readFromPrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || primaryRequired.get() != null) return;
+        primaryRequired.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                primaryRequired.remove();
+            }
+        });
+    }
+
+    boolean isPrimaryRequired() {
+        return primaryRequired.get() != null;
+    }
+}
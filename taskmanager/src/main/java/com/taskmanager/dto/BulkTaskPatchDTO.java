@@ -0,0 +1,21 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkTaskPatchDTO {
+    // target either explicit ids or every task of a project, optionally only those in fromStatus
+    private List<Long> ids;
+    private Long projectId;
+    private String fromStatus;
+
+    // fields to set; null leaves the column unchanged
+    private String status;
+    private Integer priority;
+}
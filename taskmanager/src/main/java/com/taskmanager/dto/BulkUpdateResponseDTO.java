@@ -0,0 +1,13 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkUpdateResponseDTO {
+    private String message;
+    private int updated;
+}
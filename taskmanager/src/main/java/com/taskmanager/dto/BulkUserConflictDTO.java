@@ -0,0 +1,16 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkUserConflictDTO {
+    // position of the row in the request
+    private int index;
+    private String name;
+    private String email;
+    private String message;
+}
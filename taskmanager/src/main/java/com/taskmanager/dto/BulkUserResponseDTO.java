@@ -0,0 +1,18 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkUserResponseDTO {
+    private String message;
+    private int created;
+    private List<Long> ids = new ArrayList<>();
+    private List<BulkUserConflictDTO> conflicts = new ArrayList<>();
+}
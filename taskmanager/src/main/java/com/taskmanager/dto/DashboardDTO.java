@@ -0,0 +1,17 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class DashboardDTO {
+    private List<DashboardProjectDTO> projects = new ArrayList<>();
+    private long taskCount;
+    private long overdueCount;
+}
@@ -0,0 +1,23 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class DashboardProjectDTO {
+    private ProjectDTO project;
+    private long taskCount;
+    // not completed and due before today
+    private long overdueCount;
+    private Map<String, Long> statusCounts = new LinkedHashMap<>();
+    // not completed and due today or later, soonest first
+    private List<TasksDTO> upcomingTasks = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProjectStatusCountsDTO {
+    private Long projectId;
+    private String projectTitle;
+    // keyed by the status wire value, e.g. "in-progress"
+    private Map<String, Long> counts = new LinkedHashMap<>();
+    private long total;
+}
@@ -0,0 +1,21 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskChangesDTO {
+    private List<TasksDTO> tasks = new ArrayList<>();
+    private List<TombstoneDTO> deleted = new ArrayList<>();
+    // pass back as since; with hasMore the next call continues the same catch-up
+    private String watermark;
+    private boolean hasMore;
+    // since was older than the tombstones kept: drop local state, this is a full sync
+    private boolean reset;
+}
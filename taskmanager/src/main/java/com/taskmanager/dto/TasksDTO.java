@@ -29,5 +29,6 @@ public class TasksDTO {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     private ProjectDTO projectDTO;
 }
@@ -0,0 +1,18 @@
+package com.taskmanager.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class TombstoneDTO {
+    // "task" or "project"; a deleted project takes all of its tasks with it
+    private String type;
+    private Long id;
+    private Long projectId;
+    private LocalDateTime deletedAt;
+}
@@ -1,16 +1,26 @@
 package com.taskmanager.entity;
 
+import com.taskmanager.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "projects", indexes = @Index(columnList = "title"))
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_title", columnList = "title"),
+        @Index(name = "idx_projects_user", columnList = "user_id")
+})
+// the cached entry carries user_id, so Project.user resolves without touching the projects table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PROJECTS)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +37,11 @@ public class Project {
     private LocalDate startDate;
     private LocalDate endDate;
 
+    // set while ProjectPurgeWorker removes the tasks of a large project in the background
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean deleted;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
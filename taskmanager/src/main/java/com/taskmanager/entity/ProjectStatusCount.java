@@ -0,0 +1,53 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Number of tasks per status for one project. Every project has one row per
+ * {@link TaskStatus}, created with the project, and TMSServiceImpl adjusts them in the
+ * same transaction as the task write, so a breakdown never has to count tasks.
+ */
+@Entity
+@Table(name = "project_status_counts")
+@IdClass(ProjectStatusCount.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProjectStatusCount {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    // the raw code rather than TaskStatus: JPA does not apply converters to id attributes
+    @Id
+    @Column(name = "status_code")
+    private short statusCode;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    public ProjectStatusCount(Long projectId, TaskStatus status) {
+        this.projectId = projectId;
+        this.statusCode = status.code();
+    }
+
+    public TaskStatus getStatus() {
+        return TaskStatus.fromCode(statusCode);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long projectId;
+        private short statusCode;
+    }
+}
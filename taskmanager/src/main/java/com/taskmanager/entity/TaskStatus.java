@@ -0,0 +1,51 @@
+package com.taskmanager.entity;
+
+import com.taskmanager.exception.TMSException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Task status as stored in {@code tasks.status_code}. Codes are persisted, so they must
+ * never be renumbered; {@link #value()} is the wire format the frontend uses.
+ */
+public enum TaskStatus {
+    PENDING((short) 0, "pending", "todo"),
+    IN_PROGRESS((short) 1, "in-progress", "in_progress"),
+    COMPLETED((short) 2, "completed", "done");
+
+    private final short code;
+    private final String value;
+    private final List<String> aliases;
+
+    TaskStatus(short code, String value, String... aliases) {
+        this.code = code;
+        this.value = value;
+        this.aliases = List.of(aliases);
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public static TaskStatus fromCode(short code) {
+        for (TaskStatus s : values()) {
+            if (s.code == code) return s;
+        }
+        throw new IllegalArgumentException("Unknown task status code " + code);
+    }
+
+    // null stays null so callers can tell "not given" from a value
+    public static TaskStatus parse(String text) {
+        if (text == null) return null;
+        String key = text.trim().toLowerCase(Locale.ROOT);
+        for (TaskStatus s : values()) {
+            if (s.value.equals(key) || s.aliases.contains(key)) return s;
+        }
+        throw new TMSException("Invalid status: " + text);
+    }
+}
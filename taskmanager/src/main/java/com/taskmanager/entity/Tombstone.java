@@ -0,0 +1,54 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted task or project, kept so that delta sync can tell clients what to
+ * drop. A project tombstone stands for all of its tasks. Rows older than
+ * {@code tms.sync.tombstone-retention} are removed by TombstonePurgeWorker; a client that
+ * syncs from before that is sent a full reset instead.
+ */
+@Entity
+@Table(name = "tombstones", indexes = {
+        @Index(name = "idx_tombstones_owner_deleted", columnList = "owner_id, deleted_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class Tombstone {
+
+    public enum Kind { TASK, PROJECT }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public Tombstone(Long ownerId, Kind kind, Long entityId, Long projectId, LocalDateTime deletedAt) {
+        this.ownerId = ownerId;
+        this.kind = kind;
+        this.entityId = entityId;
+        this.projectId = projectId;
+        this.deletedAt = deletedAt;
+    }
+}
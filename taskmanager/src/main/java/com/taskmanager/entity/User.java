@@ -2,31 +2,46 @@ package com.taskmanager.entity;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
+import com.taskmanager.cache.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "users", uniqueConstraints = {
     @UniqueConstraint(columnNames = "name"),
     @UniqueConstraint(columnNames = "email")
+}, indexes = {
+    @Index(name = "idx_users_name_normalized", columnList = "name_normalized"),
+    @Index(name = "idx_users_email_normalized", columnList = "email_normalized")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 @Getter
 @Setter
 @NoArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -34,6 +49,26 @@ public class User {
 
     @Column(nullable = false, length = 150)
     private String email;
+
+    // trimmed, lower-cased copies so case-insensitive lookups can use a plain index;
+    // nullable only because rows that predate them are backfilled by the V2 migration
+    @Column(name = "name_normalized", length = 100)
+    private String nameNormalized;
+
+    @Column(name = "email_normalized", length = 150)
+    private String emailNormalized;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Project> projects = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    public void normalize() {
+        nameNormalized = normalize(name);
+        emailNormalized = normalize(email);
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
 }
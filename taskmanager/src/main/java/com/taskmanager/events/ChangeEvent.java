@@ -0,0 +1,41 @@
+package com.taskmanager.events;
+
+/**
+ * One committed change, as sent to the owner's stream subscribers. Only ids and the task's
+ * new version travel: a client patches or re-reads the one row it shows instead of
+ * reloading whole lists. {@code tasks.changed} covers bulk writes; {@code taskId} is null
+ * there, and so is {@code projectId} when the write spanned projects.
+ */
+public record ChangeEvent(String type, Long projectId, Long taskId, Long version) {
+
+    public static final String TASK_CREATED = "task.created";
+    public static final String TASK_UPDATED = "task.updated";
+    public static final String TASK_DELETED = "task.deleted";
+    public static final String TASKS_CHANGED = "tasks.changed";
+    public static final String PROJECT_CREATED = "project.created";
+    public static final String PROJECT_DELETED = "project.deleted";
+
+    public static ChangeEvent taskCreated(Long projectId, Long taskId, Long version) {
+        return new ChangeEvent(TASK_CREATED, projectId, taskId, version);
+    }
+
+    public static ChangeEvent taskUpdated(Long projectId, Long taskId, Long version) {
+        return new ChangeEvent(TASK_UPDATED, projectId, taskId, version);
+    }
+
+    public static ChangeEvent taskDeleted(Long projectId, Long taskId) {
+        return new ChangeEvent(TASK_DELETED, projectId, taskId, null);
+    }
+
+    public static ChangeEvent tasksChanged(Long projectId) {
+        return new ChangeEvent(TASKS_CHANGED, projectId, null, null);
+    }
+
+    public static ChangeEvent projectCreated(Long projectId) {
+        return new ChangeEvent(PROJECT_CREATED, projectId, null, null);
+    }
+
+    public static ChangeEvent projectDeleted(Long projectId) {
+        return new ChangeEvent(PROJECT_DELETED, projectId, null, null);
+    }
+}
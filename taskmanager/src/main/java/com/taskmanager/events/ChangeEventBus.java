@@ -0,0 +1,295 @@
+package com.taskmanager.events;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of committed changes to the stream subscribers of their owner.
+ * <p>
+ * Publishing never blocks: an event is serialized once and offered to each of the user's
+ * subscribers. A subscriber's buffer is bounded; when it overflows the buffered events are
+ * dropped and the client is sent {@code resync} instead, so one slow reader costs neither
+ * memory nor the publisher's time. Buffers are written out on virtual threads, one per subscriber
+ * with events pending, so an idle connection is an async request and a buffer, not a thread, and
+ * a socket that stops draining holds up only its own dispatcher. A write still running after
+ * {@code tms.stream.send-timeout} evicts the subscriber.
+ */
+@Component
+public class ChangeEventBus {
+
+    public static final String RESYNC = "resync";
+
+    private static final Outgoing HEARTBEAT = new Outgoing(0, null, null);
+    // events one subscriber may write before it goes to the back of the dispatcher queue
+    private static final int DRAIN_BATCH = 64;
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final long sendTimeoutNanos;
+    private final AtomicLong evictions = new AtomicLong();
+    private final ExecutorService dispatchers;
+    private final ScheduledExecutorService heartbeats;
+
+    @Autowired
+    public ChangeEventBus(ObjectMapper objectMapper,
+                          @Value("${tms.stream.buffer-size:256}") int bufferSize,
+                          @Value("${tms.stream.max-subscribers:10000}") int maxSubscribers,
+                          @Value("${tms.stream.heartbeat:25s}") Duration heartbeat,
+                          @Value("${tms.stream.send-timeout:10s}") Duration sendTimeout,
+                          @Value("${tms.stream.timeout:30m}") Duration timeout) {
+        if (bufferSize < 1) throw new IllegalArgumentException("tms.stream.buffer-size must be >= 1");
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        // virtual whether or not requests run on them: a fixed pool lets a few stalled sockets hold up everyone.
+        // At most one dispatch per subscriber runs at a time, so there is no pool to bound.
+        this.dispatchers = Executors.newCachedThreadPool();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemon("tms-stream-heartbeat-"));
+        long period = heartbeat.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+        long check = Math.max(1, sendTimeout.toMillis() / 2);
+        heartbeats.scheduleAtFixedRate(this::evictStalled, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of the user's changes, or returns null when the node is at
+     * {@code tms.stream.max-subscribers}. A client that reconnects ({@code resume}) is sent
+     * {@code resync} first, since the events it missed are not kept.
+     */
+    public SseEmitter subscribe(Long userId, boolean resume) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = register(userId, new SseSink(emitter), resume);
+        if (subscriber == null) return null;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Queues the event for every subscriber of the user. Call after commit: subscribers
+     * must only hear about changes that are visible to the reads they trigger.
+     */
+    public void publish(Long userId, ChangeEvent event) {
+        if (userId == null || event == null) return;
+        Set<Subscriber> targets = subscribers.get(userId);
+        // nobody listening, so not even serialized
+        if (targets == null) return;
+        Outgoing out = new Outgoing(sequence.incrementAndGet(), event.type(), objectMapper.writeValueAsString(event));
+        for (Subscriber subscriber : targets) subscriber.offer(out);
+        published.incrementAndGet();
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long publishedCount() {
+        return published.get();
+    }
+
+    public long overflowCount() {
+        return overflows.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    Subscriber register(Long userId, EventSink sink, boolean resume) {
+        if (userId == null) throw new IllegalArgumentException("userId required");
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            rejected.incrementAndGet();
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(userId, sink);
+        subscribers.compute(userId, (k, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        if (resume) subscriber.resyncOwed = true;
+        // the first write commits the response, so the client sees the stream open at once
+        subscriber.offer(HEARTBEAT);
+        return subscriber;
+    }
+
+    void remove(Subscriber subscriber) {
+        if (unregister(subscriber)) subscriber.sink.close();
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) return false;
+        subscribers.computeIfPresent(subscriber.userId, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    // keeps proxies from closing idle streams and finds clients that went away without a word
+    private void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                if (subscriber.buffer.isEmpty()) subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    // A write that outlives the deadline means the client stopped reading. Its dispatcher is
+    // interrupted, and the close goes to a dispatcher too: completing the emitter takes the lock the
+    // stuck write holds, and this thread must not wait on it.
+    private void evictStalled() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                long since = subscriber.sendingSince;
+                if (since == 0 || now - since < sendTimeoutNanos) continue;
+                if (!unregister(subscriber)) continue;
+                evictions.incrementAndGet();
+                Thread dispatcher = subscriber.dispatcher;
+                if (dispatcher != null) dispatcher.interrupt();
+                dispatchers.execute(subscriber.sink::close);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(this::remove));
+        dispatchers.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private record Outgoing(long id, String name, String json) {
+    }
+
+    final class Subscriber implements Runnable {
+        private final Long userId;
+        private final EventSink sink;
+        private final Queue<Outgoing> buffer = new ArrayBlockingQueue<>(bufferSize);
+        // at most one dispatcher works on a subscriber, which keeps its events in order
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean resyncOwed;
+        // when the write in progress started, 0 while none is; and the thread doing it
+        private volatile long sendingSince;
+        private volatile Thread dispatcher;
+
+        private Subscriber(Long userId, EventSink sink) {
+            this.userId = userId;
+            this.sink = sink;
+        }
+
+        void offer(Outgoing out) {
+            if (closed.get()) return;
+            if (!buffer.offer(out)) {
+                // whatever is buffered is now incomplete; the client reloads instead
+                resyncOwed = true;
+                buffer.clear();
+                overflows.incrementAndGet();
+            }
+            if (scheduled.compareAndSet(false, true)) dispatchers.execute(this);
+        }
+
+        @Override
+        public void run() {
+            dispatcher = Thread.currentThread();
+            try {
+                for (int sent = 0; sent < DRAIN_BATCH && !closed.get(); sent++) {
+                    Outgoing out = null;
+                    if (!resyncOwed) {
+                        out = buffer.poll();
+                        if (out == null) break;
+                    }
+                    sendingSince = System.nanoTime();
+                    if (out == null) {
+                        resyncOwed = false;
+                        sink.send(sequence.incrementAndGet(), RESYNC, "{\"type\":\"" + RESYNC + "\"}");
+                    } else if (out == HEARTBEAT) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(out.id(), out.name(), out.json());
+                    }
+                    sendingSince = 0;
+                }
+            } catch (IOException | RuntimeException e) {
+                remove(this);
+            } finally {
+                sendingSince = 0;
+                dispatcher = null;
+                // an eviction's interrupt must not outlive this dispatch
+                Thread.interrupted();
+                scheduled.set(false);
+            }
+            // events offered while the flag was still set would otherwise wait for the next publish
+            if (!closed.get() && (resyncOwed || !buffer.isEmpty()) && scheduled.compareAndSet(false, true)) {
+                dispatchers.execute(this);
+            }
+        }
+    }
+
+    private record SseSink(SseEmitter emitter) implements EventSink {
+
+        @Override
+        public void send(long id, String name, String json) throws IOException {
+            emitter.send(SseEmitter.event().id(Long.toString(id)).name(name).data(json, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("ping"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.taskmanager.events;
+
+import java.io.IOException;
+
+/**
+ * The connection end of one subscriber. {@link ChangeEventBus} only ever calls it from one
+ * dispatcher thread at a time; a thrown exception means the client is gone.
+ */
+interface EventSink {
+
+    void send(long id, String name, String json) throws IOException;
+
+    void heartbeat() throws IOException;
+
+    void close();
+}
@@ -0,0 +1,8 @@
+package com.taskmanager.exception;
+
+// the task was written after the version the caller sent in If-Match; the controller answers 412
+public class TaskVersionConflictException extends TMSException {
+    public TaskVersionConflictException(String message) {
+        super(message);
+    }
+}
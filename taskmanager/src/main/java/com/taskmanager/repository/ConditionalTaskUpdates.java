@@ -0,0 +1,23 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.repository.projection.TaskRow;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * The conditional writes behind If-Match. Each is one UPDATE guarded on the version that also returns
+ * the row as it was before, so the caller knows the status it changed from and can build the new
+ * state without reading the task. Empty when no row had that id and version.
+ */
+public interface ConditionalTaskUpdates {
+
+    Optional<TaskRow> replaceIfVersion(Long id, long version, String title, String description,
+                                       TaskStatus status, LocalDate dueDate, Integer priority, LocalDateTime now);
+
+    // null fields keep their value; the due date is not part of a patch
+    Optional<TaskRow> patchIfVersion(Long id, long version, String title, String description,
+                                     TaskStatus status, Integer priority, LocalDateTime now);
+}
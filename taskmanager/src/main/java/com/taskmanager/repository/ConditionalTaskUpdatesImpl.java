@@ -0,0 +1,105 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.Tasks;
+import com.taskmanager.repository.projection.TaskRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Native, because JPQL updates return only a row count. PostgreSQL joins the task to its own
+// pre-update row and returns that (the version guard is rechecked on the locked row, so a concurrent
+// write makes it match nothing rather than return a stale row); H2 selects from the update's OLD TABLE. The project columns
+// come along so the result maps to a TaskRow like any read.
+class ConditionalTaskUpdatesImpl implements ConditionalTaskUpdates {
+
+    private static final String REPLACE = "title = :title, description = :description, status_code = :status," +
+            " due_date = :dueDate, priority = :priority, updated_at = :now, version = t.version + 1";
+
+    private static final String PATCH = "title = coalesce(:title, t.title), description = coalesce(:description, t.description)," +
+            " status_code = coalesce(:status, t.status_code), priority = coalesce(:priority, t.priority)," +
+            " updated_at = :now, version = t.version + 1";
+
+    private static final String COLUMNS = "o.id, o.title, o.description, o.status_code, o.due_date, o.priority," +
+            " o.created_at, o.updated_at, o.version, p.id as project_id, p.title as project_title," +
+            " p.description as project_description, p.start_date, p.end_date, p.user_id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Optional<TaskRow> replaceIfVersion(Long id, long version, String title, String description,
+                                              TaskStatus status, LocalDate dueDate, Integer priority, LocalDateTime now) {
+        NativeQuery<?> query = update(REPLACE);
+        query.setParameter("dueDate", dueDate, LocalDate.class);
+        return run(query, id, version, title, description, status, priority, now);
+    }
+
+    @Override
+    public Optional<TaskRow> patchIfVersion(Long id, long version, String title, String description,
+                                            TaskStatus status, Integer priority, LocalDateTime now) {
+        return run(update(PATCH), id, version, title, description, status, priority, now);
+    }
+
+    private NativeQuery<?> update(String set) {
+        String sql = isPostgres()
+                ? "update tasks t set " + set + " from tasks o left join projects p on p.id = o.project_id" +
+                  " where o.id = t.id and t.id = :id and t.version = :version returning " + COLUMNS
+                : "select " + COLUMNS + " from old table (update tasks t set " + set +
+                  " where t.id = :id and t.version = :version) o left join projects p on p.id = o.project_id";
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Tasks.class);
+    }
+
+    private static Optional<TaskRow> run(NativeQuery<?> query, Long id, long version, String title, String description,
+                                         TaskStatus status, Integer priority, LocalDateTime now) {
+        query.setParameter("id", id)
+                .setParameter("version", version)
+                .setParameter("title", title, String.class)
+                .setParameter("description", description, String.class)
+                .setParameter("status", status == null ? null : status.code(), Short.class)
+                .setParameter("priority", priority, Integer.class)
+                .setParameter("now", now, LocalDateTime.class)
+                .addScalar("id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("status_code", Short.class)
+                .addScalar("due_date", LocalDate.class)
+                .addScalar("priority", Integer.class)
+                .addScalar("created_at", LocalDateTime.class)
+                .addScalar("updated_at", LocalDateTime.class)
+                .addScalar("version", Long.class)
+                .addScalar("project_id", Long.class)
+                .addScalar("project_title", String.class)
+                .addScalar("project_description", String.class)
+                .addScalar("start_date", LocalDate.class)
+                .addScalar("end_date", LocalDate.class)
+                .addScalar("user_id", Long.class);
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) return Optional.empty();
+        Object[] r = (Object[]) rows.get(0);
+        return Optional.of(new TaskRow((Long) r[0], (String) r[1], (String) r[2],
+                r[3] == null ? null : TaskStatus.fromCode((Short) r[3]), (LocalDate) r[4], (Integer) r[5],
+                (LocalDateTime) r[6], (LocalDateTime) r[7], (Long) r[8], (Long) r[9], (String) r[10],
+                (String) r[11], (LocalDate) r[12], (LocalDate) r[13], (Long) r[14]));
+    }
+
+    private boolean isPostgres() {
+        Boolean p = postgres;
+        if (p == null) {
+            p = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            postgres = p;
+        }
+        return p;
+    }
+}
@@ -1,13 +1,57 @@
 package com.taskmanager.repository;
 
+import com.taskmanager.cache.CacheRegions;
 import com.taskmanager.entity.Project;
+import com.taskmanager.repository.projection.ProjectRow;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     Project findByTitle(String title);
+
+    // cached until a write to projects; the entities themselves come from the projects region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PROJECTS_BY_USER)
+    })
     List<Project> findByUser_Id(Long userId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PROJECTS_BY_USER)
+    })
+    @Query(ProjectRow.SELECT + " where p.user.id = :userId and p.deleted = false order by p.id")
+    List<ProjectRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Query("select p.user.id from Project p where p.id = :id and p.deleted = false")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    @Query("select p.id from Project p where p.deleted = true")
+    List<Long> findDeletedIds();
+
+    // Both go through the entity, so only this project's second-level cache entry changes; a bulk
+    // statement on Project would evict the whole region. The per-user queries are invalidated either way.
+    default void markDeleted(Long id) {
+        findById(id).ifPresent(project -> project.setDeleted(true));
+    }
+
+    // Only once the project's tasks are deleted. The cascade on Project.tasks would still load the
+    // (empty) collection to walk it, so the project gives it up first; a collection may be dropped
+    // that way only because its owner is being removed.
+    default void deleteEmptyById(Long id) {
+        findById(id).ifPresent(project -> {
+            project.setTasks(new ArrayList<>());
+            delete(project);
+        });
+    }
+
 }
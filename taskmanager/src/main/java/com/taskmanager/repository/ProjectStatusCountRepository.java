@@ -0,0 +1,43 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.ProjectStatusCount;
+import com.taskmanager.repository.projection.ProjectStatusRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+// counters are only ever changed by relative updates, so concurrent writers never overwrite each other
+public interface ProjectStatusCountRepository extends JpaRepository<ProjectStatusCount, ProjectStatusCount.Key> {
+
+    @Query(ProjectStatusRow.SELECT + " where p.id = c.projectId and p.user.id = :userId and p.deleted = false" +
+            " order by c.projectId, c.statusCode")
+    List<ProjectStatusRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update ProjectStatusCount c set c.taskCount = c.taskCount + :delta" +
+            " where c.projectId = :projectId and c.statusCode = :statusCode")
+    int adjust(@Param("projectId") Long projectId,
+               @Param("statusCode") short statusCode,
+               @Param("delta") long delta);
+
+    // both counters of a status change in one statement
+    @Modifying
+    @Query("update ProjectStatusCount c" +
+            " set c.taskCount = case when c.statusCode = :to then c.taskCount + :n else c.taskCount - :n end" +
+            " where c.projectId = :projectId and c.statusCode in (:from, :to)")
+    int move(@Param("projectId") Long projectId,
+             @Param("from") short from,
+             @Param("to") short to,
+             @Param("n") long n);
+
+    // the project's task count from its few counter rows, instead of counting its tasks
+    @Query("select coalesce(sum(c.taskCount), 0) from ProjectStatusCount c where c.projectId = :projectId")
+    long sumByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("delete from ProjectStatusCount c where c.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
@@ -2,15 +2,185 @@ package com.taskmanager.repository;
 
 import com.taskmanager.entity.Tasks;
 import com.taskmanager.entity.Project;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.repository.projection.ProjectCountRow;
+import com.taskmanager.repository.projection.TaskProjectRow;
+import com.taskmanager.repository.projection.TaskRow;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Tasks, Long> {
+public interface TaskRepository extends JpaRepository<Tasks, Long>, ConditionalTaskUpdates {
 
     List<Tasks> findByProject(Project project);
 
     List<Tasks> findByProject_User_Id(Long userId);
 
-    List<Tasks> findTop5ByProject_User_IdOrderByPriorityDesc(Long userId);
+    // a prefix of idx_tasks_project_created in index order, so each purge chunk reads only the ids it deletes
+    @Query("select t.id from Tasks t where t.project.id = :projectId order by t.createdAt, t.id")
+    List<Long> findIdsByProjectId(@Param("projectId") Long projectId, Pageable page);
+
+    @Query(TaskRow.SELECT + " where t.id = :id and p.deleted = false")
+    Optional<TaskRow> findRowById(@Param("id") Long id);
+
+    @Query(TaskRow.SELECT + " where t.project.id = :projectId order by t.id")
+    List<TaskRow> findRowsByProjectId(@Param("projectId") Long projectId);
+
+    @Query(TaskRow.SELECT + " where t.id in :ids and p.user.id = :userId and p.deleted = false")
+    List<TaskRow> findRowsByIdsAndOwner(@Param("ids") List<Long> ids, @Param("userId") Long userId);
+
+    // rows are read through a server-side cursor in fetch-size chunks; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TaskRow.SELECT + " where p.user.id = :userId and p.deleted = false order by t.id")
+    Stream<TaskRow> streamRowsByOwner(@Param("userId") Long userId);
+
+    // keyset seek on idx_tasks_owner_updated, the row-value form so it is one index range;
+    // tasks stamped after :until are left for the next sync
+    @Query(TaskRow.SELECT + " where t.ownerId = :ownerId and p.deleted = false" +
+            " and (t.updatedAt, t.id) > (:afterUpdatedAt, :afterId)" +
+            " and t.updatedAt <= :until" +
+            " order by t.updatedAt, t.id")
+    List<TaskRow> findChangedByOwner(@Param("ownerId") Long ownerId,
+                                     @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                     @Param("afterId") long afterId,
+                                     @Param("until") LocalDateTime until,
+                                     Pageable page);
+
+    // walks idx_tasks_owner_priority in order; tasks of deleted projects are skipped on the way
+    @Query(TaskRow.SELECT + " where t.ownerId = :userId and p.deleted = false" +
+            " order by t.priority desc nulls last, t.id asc")
+    List<TaskRow> findTopByOwner(@Param("userId") Long userId, Pageable page);
+
+    @Query("select new com.taskmanager.repository.projection.ProjectCountRow(p.id, count(t)) from Tasks t join t.project p" +
+            " where p.user.id = :userId and p.deleted = false and t.dueDate < :today and t.status <> :done" +
+            " group by p.id")
+    List<ProjectCountRow> countOverdueByOwner(@Param("userId") Long userId,
+                                              @Param("today") LocalDate today,
+                                              @Param("done") TaskStatus done);
+
+    // the first perProject open tasks by due date of every project, ranked in the database in one pass
+    @Query(TaskRow.SELECT + " where t.id in (select r.id from (" +
+            "select u.id as id, row_number() over (partition by up.id order by u.dueDate, u.id) as rn" +
+            " from Tasks u join u.project up" +
+            " where up.user.id = :userId and up.deleted = false and u.dueDate >= :today and u.status <> :done) r" +
+            " where r.rn <= :perProject)" +
+            " order by p.id, t.dueDate, t.id")
+    List<TaskRow> findUpcomingByOwner(@Param("userId") Long userId,
+                                      @Param("today") LocalDate today,
+                                      @Param("done") TaskStatus done,
+                                      @Param("perProject") int perProject);
+
+    // Task pages, in creation order. One query per status filter, so each walks its own index in order:
+    // idx_tasks_project_created, or idx_tasks_project_status_code_created when a status is given. The
+    // priority and due date filters only drop rows along the way. The After variants seek past the
+    // cursor with a row-value comparison, which the index serves as a single range.
+    String PAGE_FILTERS = " and (:minPriority is null or t.priority >= :minPriority)" +
+            " and (:maxPriority is null or t.priority <= :maxPriority)" +
+            " and (:dueFrom is null or t.dueDate >= :dueFrom)" +
+            " and (:dueTo is null or t.dueDate <= :dueTo)" +
+            " order by t.createdAt asc, t.id asc";
+
+    @Query(TaskRow.SELECT + " where t.project.id = :projectId" + PAGE_FILTERS)
+    List<TaskRow> findPageByProject(@Param("projectId") Long projectId,
+                                    @Param("minPriority") Integer minPriority,
+                                    @Param("maxPriority") Integer maxPriority,
+                                    @Param("dueFrom") LocalDate dueFrom,
+                                    @Param("dueTo") LocalDate dueTo,
+                                    Pageable page);
+
+    @Query(TaskRow.SELECT + " where t.project.id = :projectId and t.status = :status" + PAGE_FILTERS)
+    List<TaskRow> findPageByProjectAndStatus(@Param("projectId") Long projectId,
+                                             @Param("status") TaskStatus status,
+                                             @Param("minPriority") Integer minPriority,
+                                             @Param("maxPriority") Integer maxPriority,
+                                             @Param("dueFrom") LocalDate dueFrom,
+                                             @Param("dueTo") LocalDate dueTo,
+                                             Pageable page);
+
+    @Query(TaskRow.SELECT + " where t.project.id = :projectId" +
+            " and (t.createdAt, t.id) > (:afterCreatedAt, :afterId)" + PAGE_FILTERS)
+    List<TaskRow> findPageByProjectAfter(@Param("projectId") Long projectId,
+                                         @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                         @Param("afterId") Long afterId,
+                                         @Param("minPriority") Integer minPriority,
+                                         @Param("maxPriority") Integer maxPriority,
+                                         @Param("dueFrom") LocalDate dueFrom,
+                                         @Param("dueTo") LocalDate dueTo,
+                                         Pageable page);
+
+    @Query(TaskRow.SELECT + " where t.project.id = :projectId and t.status = :status" +
+            " and (t.createdAt, t.id) > (:afterCreatedAt, :afterId)" + PAGE_FILTERS)
+    List<TaskRow> findPageByProjectAndStatusAfter(@Param("projectId") Long projectId,
+                                                  @Param("status") TaskStatus status,
+                                                  @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                  @Param("afterId") Long afterId,
+                                                  @Param("minPriority") Integer minPriority,
+                                                  @Param("maxPriority") Integer maxPriority,
+                                                  @Param("dueFrom") LocalDate dueFrom,
+                                                  @Param("dueTo") LocalDate dueTo,
+                                                  Pageable page);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Tasks t set t.status = coalesce(:status, t.status)," +
+            " t.priority = coalesce(:priority, t.priority), t.updatedAt = :now, t.version = t.version + 1" +
+            " where t.id in :ids and t.project.id in (select p.id from Project p where p.user.id = :userId and p.deleted = false)")
+    int patchByIds(@Param("ids") List<Long> ids,
+                   @Param("userId") Long userId,
+                   @Param("status") TaskStatus status,
+                   @Param("priority") Integer priority,
+                   @Param("now") LocalDateTime now);
+
+    // locks the row, so the status it read is still the status when the write commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Tasks t where t.id = :id")
+    Optional<Tasks> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select new com.taskmanager.repository.projection.TaskProjectRow(t.id, p.id) from Tasks t join t.project p" +
+            " where t.id in :ids and p.user.id = :userId and p.deleted = false")
+    List<TaskProjectRow> findProjectsByIdsAndOwner(@Param("ids") List<Long> ids, @Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Tasks t set t.status = coalesce(:status, t.status)," +
+            " t.priority = coalesce(:priority, t.priority), t.updatedAt = :now, t.version = t.version + 1" +
+            " where t.id in :ids and t.project.id = :projectId and t.status = :fromStatus")
+    int patchByIdsInProject(@Param("ids") List<Long> ids,
+                            @Param("projectId") Long projectId,
+                            @Param("fromStatus") TaskStatus fromStatus,
+                            @Param("status") TaskStatus status,
+                            @Param("priority") Integer priority,
+                            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Tasks t set t.status = coalesce(:status, t.status)," +
+            " t.priority = coalesce(:priority, t.priority), t.updatedAt = :now, t.version = t.version + 1" +
+            " where t.project.id = :projectId and (:fromStatus is null or t.status = :fromStatus)")
+    int patchByProject(@Param("projectId") Long projectId,
+                       @Param("fromStatus") TaskStatus fromStatus,
+                       @Param("status") TaskStatus status,
+                       @Param("priority") Integer priority,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Tasks t where t.project.id = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Tasks t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
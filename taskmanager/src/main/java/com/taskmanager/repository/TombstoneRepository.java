@@ -0,0 +1,23 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("select t from Tombstone t where t.ownerId = :ownerId and t.deletedAt > :after and t.deletedAt <= :until" +
+            " order by t.deletedAt, t.id")
+    List<Tombstone> findByOwnerBetween(@Param("ownerId") Long ownerId,
+                                       @Param("after") LocalDateTime after,
+                                       @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("delete from Tombstone t where t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -3,6 +3,8 @@ package com.taskmanager.repository;
 import com.taskmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -10,6 +12,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByName(String name);
     Optional<User> findByEmail(String email);    
     boolean existsByEmail(String email);
-        Optional<User> findByNameIgnoreCase(String name);
+    Optional<User> findByNameNormalized(String nameNormalized);
+    List<User> findByNameInOrEmailIn(Collection<String> names, Collection<String> emails);
 
 }
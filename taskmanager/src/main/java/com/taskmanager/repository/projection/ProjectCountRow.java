@@ -0,0 +1,7 @@
+package com.taskmanager.repository.projection;
+
+/**
+ * A per-project count from a grouped query.
+ */
+public record ProjectCountRow(Long projectId, Long count) {
+}
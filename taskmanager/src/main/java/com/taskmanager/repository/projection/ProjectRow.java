@@ -0,0 +1,18 @@
+package com.taskmanager.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Flat read model of a project with its owner id, so listing projects never touches {@code Project.user}.
+ */
+public record ProjectRow(Long id,
+                         String title,
+                         String description,
+                         LocalDate startDate,
+                         LocalDate endDate,
+                         Long userId) {
+
+    public static final String SELECT = "select new com.taskmanager.repository.projection.ProjectRow(" +
+            "p.id, p.title, p.description, p.startDate, p.endDate, p.user.id) " +
+            "from Project p";
+}
@@ -0,0 +1,14 @@
+package com.taskmanager.repository.projection;
+
+/**
+ * One counter row of a project's status breakdown, joined with the project title.
+ */
+public record ProjectStatusRow(Long projectId,
+                               String projectTitle,
+                               Short statusCode,
+                               Long taskCount) {
+
+    public static final String SELECT = "select new com.taskmanager.repository.projection.ProjectStatusRow(" +
+            "c.projectId, p.title, c.statusCode, c.taskCount) " +
+            "from ProjectStatusCount c, Project p";
+}
@@ -0,0 +1,7 @@
+package com.taskmanager.repository.projection;
+
+/**
+ * A task id with the project it belongs to, for bulk writes that have to be grouped by project.
+ */
+public record TaskProjectRow(Long id, Long projectId) {
+}
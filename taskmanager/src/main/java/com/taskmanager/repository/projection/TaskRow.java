@@ -0,0 +1,32 @@
+package com.taskmanager.repository.projection;
+
+import com.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model of a task and its project, selected in a single statement so
+ * list endpoints never trigger lazy loads of {@code Tasks.project} or {@code Project.user}.
+ */
+public record TaskRow(Long id,
+                      String title,
+                      String description,
+                      TaskStatus status,
+                      LocalDate dueDate,
+                      Integer priority,
+                      LocalDateTime createdAt,
+                      LocalDateTime updatedAt,
+                      Long version,
+                      Long projectId,
+                      String projectTitle,
+                      String projectDescription,
+                      LocalDate projectStartDate,
+                      LocalDate projectEndDate,
+                      Long ownerId) {
+
+    public static final String SELECT = "select new com.taskmanager.repository.projection.TaskRow(" +
+            "t.id, t.title, t.description, t.status, t.dueDate, t.priority, t.createdAt, t.updatedAt, t.version, " +
+            "p.id, p.title, p.description, p.startDate, p.endDate, p.user.id) " +
+            "from Tasks t left join t.project p";
+}
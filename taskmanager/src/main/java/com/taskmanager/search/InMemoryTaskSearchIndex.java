@@ -0,0 +1,154 @@
+package com.taskmanager.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index for databases without full-text search (H2 in development and tests).
+ * Postings are kept per owner, so a search only walks the caller's own tasks, starting
+ * from the rarest query term. Matches need every term; they are ranked by tf-idf over the
+ * owner's tasks. Terms are lower-cased words with no stemming, unlike the PostgreSQL
+ * backend's {@code english} configuration.
+ */
+public class InMemoryTaskSearchIndex implements TaskSearchIndex {
+
+    private record Doc(long ownerId, long projectId, Map<String, Integer> terms) {
+    }
+
+    private record Hit(long id, double score) {
+    }
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<Long, Map<String, Set<Long>>> postingsByOwner = new HashMap<>();
+    private final Map<Long, Set<Long>> tasksByProject = new HashMap<>();
+    private final Map<Long, Integer> docsByOwner = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public List<Long> search(Long userId, String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokens(query));
+        if (userId == null || terms.isEmpty()) return List.of();
+        lock.readLock().lock();
+        try {
+            Map<String, Set<Long>> postings = postingsByOwner.get(userId);
+            if (postings == null) return List.of();
+            List<Set<Long>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) return List.of();
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            int ownerDocs = docsByOwner.get(userId);
+            List<Hit> hits = new ArrayList<>();
+            candidates:
+            for (Long id : lists.get(0)) {
+                for (int i = 1; i < lists.size(); i++) {
+                    if (!lists.get(i).contains(id)) continue candidates;
+                }
+                Doc doc = docs.get(id);
+                double score = 0;
+                for (String term : terms) {
+                    double idf = Math.log(1.0 + (double) ownerDocs / postings.get(term).size());
+                    score += doc.terms().get(term) * idf;
+                }
+                hits.add(new Hit(id, score));
+            }
+            return hits.stream()
+                    .sorted(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(Hit::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTaskSaved(Long taskId, Long projectId, Long ownerId, String title, String description) {
+        if (taskId == null || projectId == null || ownerId == null) return;
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : tokens(title)) terms.merge(token, 1, Integer::sum);
+        for (String token : tokens(description)) terms.merge(token, 1, Integer::sum);
+        lock.writeLock().lock();
+        try {
+            remove(taskId);
+            docs.put(taskId, new Doc(ownerId, projectId, terms));
+            Map<String, Set<Long>> postings = postingsByOwner.computeIfAbsent(ownerId, k -> new HashMap<>());
+            for (String term : terms.keySet()) {
+                postings.computeIfAbsent(term, k -> new HashSet<>()).add(taskId);
+            }
+            tasksByProject.computeIfAbsent(projectId, k -> new HashSet<>()).add(taskId);
+            docsByOwner.merge(ownerId, 1, Integer::sum);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            remove(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> ids = tasksByProject.get(projectId);
+            if (ids == null) return;
+            for (Long id : new ArrayList<>(ids)) remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(Long taskId) {
+        Doc doc = docs.remove(taskId);
+        if (doc == null) return;
+        Map<String, Set<Long>> postings = postingsByOwner.get(doc.ownerId());
+        for (String term : doc.terms().keySet()) {
+            Set<Long> ids = postings.get(term);
+            ids.remove(taskId);
+            if (ids.isEmpty()) postings.remove(term);
+        }
+        if (postings.isEmpty()) postingsByOwner.remove(doc.ownerId());
+        docsByOwner.computeIfPresent(doc.ownerId(), (k, n) -> n == 1 ? null : n - 1);
+        Set<Long> projectTasks = tasksByProject.get(doc.projectId());
+        projectTasks.remove(taskId);
+        if (projectTasks.isEmpty()) tasksByProject.remove(doc.projectId());
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,44 @@
+package com.taskmanager.search;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Searches the generated {@code tasks.search_vector} column (PostgreSQL-only V10 migration) through
+ * the GIN index on {@code (owner_id, search_vector)} added with it, so only the owner's matches are ranked.
+ * The column is maintained by PostgreSQL on every insert and update, so the write hooks have nothing to do.
+ */
+public class PostgresTaskSearchIndex implements TaskSearchIndex {
+
+    private static final String SEARCH =
+            "select t.id from tasks t" +
+            " join projects p on p.id = t.project_id" +
+            " cross join websearch_to_tsquery('english', ?) q" +
+            " where t.owner_id = ? and t.search_vector @@ q and p.deleted = false" +
+            " order by ts_rank(t.search_vector, q) desc, t.id" +
+            " limit ? offset ?";
+
+    private final JdbcTemplate jdbc;
+
+    public PostgresTaskSearchIndex(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public List<Long> search(Long userId, String query, int offset, int limit) {
+        return jdbc.queryForList(SEARCH, Long.class, query, userId, limit, offset);
+    }
+
+    @Override
+    public void onTaskSaved(Long taskId, Long projectId, Long ownerId, String title, String description) {
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+    }
+}
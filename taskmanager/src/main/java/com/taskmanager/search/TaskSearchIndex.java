@@ -0,0 +1,20 @@
+package com.taskmanager.search;
+
+import java.util.List;
+
+/**
+ * Full-text search over task titles and descriptions, scoped to one owner. The write
+ * hooks are called after commit by the service; backends that index inside the database
+ * can ignore them.
+ */
+public interface TaskSearchIndex {
+
+    /** Ids of the user's tasks that match every term of {@code query}, best match first. */
+    List<Long> search(Long userId, String query, int offset, int limit);
+
+    void onTaskSaved(Long taskId, Long projectId, Long ownerId, String title, String description);
+
+    void onTaskDeleted(Long taskId);
+
+    void onProjectDeleted(Long projectId);
+}
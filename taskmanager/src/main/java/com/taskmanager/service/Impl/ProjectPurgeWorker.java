@@ -0,0 +1,65 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Removes the tasks of projects that were marked deleted, one bounded chunk per
+ * transaction, then the project row itself. Marked projects are already invisible
+ * to every read path, so this only reclaims space.
+ */
+@Component
+public class ProjectPurgeWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectPurgeWorker.class);
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+
+    public ProjectPurgeWorker(ProjectRepository projectRepository,
+                              TaskRepository taskRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${tms.projects.purge-chunk-size:1000}") int chunkSize) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${tms.projects.purge-interval-ms:5000}")
+    public void purgeDeletedProjects() {
+        for (Long projectId : projectRepository.findDeletedIds()) {
+            try {
+                purge(projectId);
+            } catch (RuntimeException e) {
+                log.warn("Purge of project {} failed, will retry on the next run", projectId, e);
+            }
+        }
+    }
+
+    void purge(Long projectId) {
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = tx.execute(status -> {
+                List<Long> ids = taskRepository.findIdsByProjectId(projectId, PageRequest.of(0, chunkSize));
+                return ids.isEmpty() ? 0 : taskRepository.deleteByIdIn(ids);
+            });
+            removed += deleted;
+        } while (deleted > 0);
+        tx.executeWithoutResult(status -> projectRepository.deleteEmptyById(projectId));
+        log.info("Purged project {} and {} tasks", projectId, removed);
+    }
+}
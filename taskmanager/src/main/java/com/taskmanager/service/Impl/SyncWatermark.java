@@ -0,0 +1,39 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.exception.TMSException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque delta-sync position. Everything up to and including {@code updatedAt} has been sent,
+ * except tasks stamped exactly {@code updatedAt} with an id above {@code lastId} when a page
+ * ended inside a run of equal timestamps; {@code lastId} is null when the whole instant is done.
+ */
+record SyncWatermark(LocalDateTime updatedAt, Long lastId) {
+
+    private static final char SEPARATOR = '|';
+
+    // seek arguments: a null lastId means no task at updatedAt is left
+    long afterId() {
+        return lastId == null ? Long.MAX_VALUE : lastId;
+    }
+
+    String encode() {
+        String raw = lastId == null ? updatedAt.toString() : updatedAt + String.valueOf(SEPARATOR) + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SyncWatermark decode(String watermark) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) return new SyncWatermark(LocalDateTime.parse(raw), null);
+            return new SyncWatermark(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new TMSException("Invalid since");
+        }
+    }
+}
@@ -1,31 +1,110 @@
 package com.taskmanager.service.Impl;
 
+import com.taskmanager.cache.AuthenticatedUserCache;
+import com.taskmanager.cache.AuthenticatedUserCache.CachedUser;
+import com.taskmanager.cache.CacheStats;
+import com.taskmanager.cache.ProjectOwnerCache;
+import com.taskmanager.cache.SecondLevelCacheStats;
+import com.taskmanager.cache.TaskDetailCache;
+import com.taskmanager.cache.TopTasksCache;
+import com.taskmanager.datasource.ReadYourWrites;
+import com.taskmanager.dto.BulkTaskPatchDTO;
+import com.taskmanager.dto.BulkTaskResponseDTO;
+import com.taskmanager.dto.BulkUpdateResponseDTO;
+import com.taskmanager.dto.BulkUserConflictDTO;
+import com.taskmanager.dto.BulkUserResponseDTO;
+import com.taskmanager.dto.DashboardDTO;
+import com.taskmanager.dto.DashboardProjectDTO;
 import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.ProjectStatusCountsDTO;
 import com.taskmanager.dto.ResponseDTO;
+import com.taskmanager.dto.TaskChangesDTO;
+import com.taskmanager.dto.TaskPageDTO;
+import com.taskmanager.dto.TaskQueryDTO;
+import com.taskmanager.dto.TaskSearchPageDTO;
 import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.dto.TombstoneDTO;
 import com.taskmanager.dto.UserDTO;
 import com.taskmanager.entity.Project;
+import com.taskmanager.entity.ProjectStatusCount;
+import com.taskmanager.entity.TaskStatus;
 import com.taskmanager.entity.Tasks;
+import com.taskmanager.entity.Tombstone;
 import com.taskmanager.entity.User;
+import com.taskmanager.events.ChangeEvent;
+import com.taskmanager.events.ChangeEventBus;
 import com.taskmanager.exception.TMSException;
+import com.taskmanager.exception.TaskVersionConflictException;
 import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.ProjectStatusCountRepository;
 import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TombstoneRepository;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.repository.projection.ProjectCountRow;
+import com.taskmanager.repository.projection.ProjectRow;
+import com.taskmanager.repository.projection.ProjectStatusRow;
+import com.taskmanager.repository.projection.TaskProjectRow;
+import com.taskmanager.repository.projection.TaskRow;
+import com.taskmanager.search.TaskSearchIndex;
 import com.taskmanager.service.TMSService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "tms.service", histogram = true)
 public class TMSServiceImpl implements TMSService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_TOP_TASKS = 100;
+    private static final int MAX_DASHBOARD_UPCOMING = 20;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    // every skipped match is still ranked, so deep offsets cost as much as returning them
+    private static final int MAX_SEARCH_OFFSET = 1000;
+    private static final int MAX_BULK_TASKS = 10_000;
+    private static final int MAX_BULK_USERS = 10_000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final int EXPORT_FLUSH_EVERY = 500;
+    private static final int DEFAULT_SYNC_LIMIT = 500;
+    private static final int MAX_SYNC_LIMIT = 1000;
+    private static final LocalDateTime SYNC_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -35,47 +114,215 @@ public class TMSServiceImpl implements TMSService {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ProjectStatusCountRepository statusCountRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TopTasksCache topTasksCache;
+
+    @Autowired
+    private ProjectOwnerCache projectOwnerCache;
+
+    @Autowired
+    private TaskDetailCache taskDetailCache;
+
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Autowired
+    private SecondLevelCacheStats secondLevelCacheStats;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private ChangeEventBus changeEvents;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tms.tasks.bulk-batch-size:500}")
+    private int bulkBatchSize = 500;
+
+    @Value("${tms.tasks.bulk-update-chunk-size:1000}")
+    private int bulkUpdateChunkSize = 1000;
+
+    // how long a write may take between stamping updatedAt and committing; delta sync stays that far behind
+    @Value("${tms.sync.commit-lag:5s}")
+    private Duration syncCommitLag = Duration.ofSeconds(5);
+
+    @Value("${tms.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    @Value("${tms.projects.purge-async-threshold:10000}")
+    private long purgeAsyncThreshold = 10_000;
+
+    // no exists-checks up front: the unique constraints on name and email decide, and only a
+    // rejected insert pays for the lookup that picks the message
     @Override
-    @Transactional
     public ResponseDTO registerUser(UserDTO userDTO) {
         if (userDTO == null || userDTO.getName() == null || userDTO.getEmail() == null) {
             throw new TMSException("Invalid user data");
         }
-        if (userRepository.existsByName(userDTO.getName())) {
-            throw new TMSException("User name already exists");
-        }
-        if (userRepository.existsByEmail(userDTO.getEmail())) {
-            throw new TMSException("Email already registered");
-        }
+        insertUser(userDTO);
+        ResponseDTO resp = new ResponseDTO();
+        resp.setMessage("User registered successfully");
+        return resp;
+    }
+
+    private User insertUser(UserDTO userDTO) {
         User user = new User();
         user.setName(userDTO.getName().trim());
         user.setEmail(userDTO.getEmail().trim());
-        userRepository.save(user);
-        ResponseDTO resp = new ResponseDTO();
-        resp.setMessage("User registered successfully");
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new TMSException(duplicateUserMessage(user.getName()));
+        }
+    }
+
+    @Override
+    public BulkUserResponseDTO registerUsers(List<UserDTO> userDTOs) {
+        if (userDTOs == null || userDTOs.isEmpty()) throw new TMSException("Invalid user data");
+        if (userDTOs.size() > MAX_BULK_USERS) throw new TMSException("At most " + MAX_BULK_USERS + " users per request");
+
+        BulkUserResponseDTO resp = new BulkUserResponseDTO();
+        Set<String> names = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < userDTOs.size(); i++) {
+            UserDTO dto = userDTOs.get(i);
+            String problem = validateUser(dto);
+            if (problem == null && !names.add(dto.getName().trim())) problem = "Duplicate name in request";
+            if (problem == null && !emails.add(dto.getEmail().trim())) problem = "Duplicate email in request";
+            if (problem != null) addConflict(resp, i, dto, problem);
+            else candidates.add(i);
+        }
+
+        for (int from = 0; from < candidates.size(); from += bulkBatchSize) {
+            List<Integer> chunk = candidates.subList(from, Math.min(from + bulkBatchSize, candidates.size()));
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> insertUserChunk(userDTOs, chunk, resp));
+            } catch (DataIntegrityViolationException e) {
+                // another writer took a name or email after the check; retry one row at a time to find which
+                for (Integer i : chunk) {
+                    try {
+                        resp.getIds().add(insertUser(userDTOs.get(i)).getId());
+                    } catch (TMSException conflict) {
+                        addConflict(resp, i, userDTOs.get(i), conflict.getMessage());
+                    }
+                }
+            }
+        }
+        resp.getConflicts().sort(Comparator.comparingInt(BulkUserConflictDTO::getIndex));
+        resp.setCreated(resp.getIds().size());
+        resp.setMessage(resp.getConflicts().isEmpty() ? "Users registered" : "Users registered with conflicts");
         return resp;
     }
 
+    // one lookup for the whole chunk, then one JDBC batch for the rows that are still free
+    private void insertUserChunk(List<UserDTO> userDTOs, List<Integer> chunk, BulkUserResponseDTO resp) {
+        List<String> names = new ArrayList<>(chunk.size());
+        List<String> emails = new ArrayList<>(chunk.size());
+        for (Integer i : chunk) {
+            names.add(userDTOs.get(i).getName().trim());
+            emails.add(userDTOs.get(i).getEmail().trim());
+        }
+        Set<String> takenNames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (User existing : userRepository.findByNameInOrEmailIn(names, emails)) {
+            takenNames.add(existing.getName());
+            takenEmails.add(existing.getEmail());
+        }
+
+        List<BulkUserConflictDTO> conflicts = new ArrayList<>();
+        List<User> inserted = new ArrayList<>(chunk.size());
+        for (int k = 0; k < chunk.size(); k++) {
+            int i = chunk.get(k);
+            if (takenNames.contains(names.get(k))) {
+                conflicts.add(conflict(i, userDTOs.get(i), "User name already exists"));
+            } else if (takenEmails.contains(emails.get(k))) {
+                conflicts.add(conflict(i, userDTOs.get(i), "Email already registered"));
+            } else {
+                User user = new User();
+                user.setName(names.get(k));
+                user.setEmail(emails.get(k));
+                entityManager.persist(user);
+                inserted.add(user);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // only report the chunk once it can no longer roll back into the row-by-row retry
+        afterCommit(() -> {
+            for (User user : inserted) resp.getIds().add(user.getId());
+            resp.getConflicts().addAll(conflicts);
+        });
+    }
+
+    private String validateUser(UserDTO dto) {
+        if (dto == null || dto.getName() == null || dto.getEmail() == null) return "Invalid user data";
+        String name = dto.getName().trim();
+        String email = dto.getEmail().trim();
+        if (name.isEmpty()) return "Name is required";
+        if (name.length() > 100) return "Name must be at most 100 characters";
+        if (email.isEmpty()) return "Email is required";
+        if (email.length() > 150 || !EMAIL.matcher(email).matches()) return "Email must be valid";
+        return null;
+    }
+
+    private String duplicateUserMessage(String name) {
+        return userRepository.existsByName(name) ? "User name already exists" : "Email already registered";
+    }
+
+    private static void addConflict(BulkUserResponseDTO resp, int index, UserDTO dto, String message) {
+        resp.getConflicts().add(conflict(index, dto, message));
+    }
+
+    private static BulkUserConflictDTO conflict(int index, UserDTO dto, String message) {
+        BulkUserConflictDTO c = new BulkUserConflictDTO();
+        c.setIndex(index);
+        if (dto != null) {
+            c.setName(dto.getName());
+            c.setEmail(dto.getEmail());
+        }
+        c.setMessage(message);
+        return c;
+    }
+
 @Override
 public UserDTO loginUser(UserDTO credentials) {
     if (credentials == null || credentials.getName() == null || credentials.getEmail() == null) {
         throw new TMSException("Invalid credentials");
     }
 
-    String name = credentials.getName().trim();
-    String email = credentials.getEmail().trim().toLowerCase();
+    String name = User.normalize(credentials.getName());
+    String email = User.normalize(credentials.getEmail());
 
-    User user = userRepository.findByNameIgnoreCase(name)
+    CachedUser user = authenticatedUserCache.get(name, key -> readPrimary(() -> userRepository.findByNameNormalized(key)
+                    .map(u -> new CachedUser(u.getId(), u.getName(), u.getEmail()))))
             .orElseThrow(() -> new TMSException("User not found"));
 
-    if (!user.getEmail().trim().equalsIgnoreCase(email)) {
+    if (!User.normalize(user.email()).equals(email)) {
         throw new TMSException("Invalid email for user");
     }
 
     UserDTO dto = new UserDTO();
-    dto.setId(user.getId());
-    dto.setName(user.getName());
-    dto.setEmail(user.getEmail());
+    dto.setId(user.id());
+    dto.setName(user.name());
+    dto.setEmail(user.email());
     return dto;
 }
 
@@ -94,78 +341,281 @@ public UserDTO loginUser(UserDTO credentials) {
         p.setEndDate(dto.getEndDate());
         p.setUser(user);
         projectRepository.save(p);
+        // persisted rather than saved: the ids are assigned, and save() would merge with a select per row
+        for (TaskStatus status : TaskStatus.values()) entityManager.persist(new ProjectStatusCount(p.getId(), status));
+        afterCommit(() -> {
+            projectOwnerCache.invalidate(p.getId());
+            announce(user.getId(), ChangeEvent.projectCreated(p.getId()));
+        });
         ResponseDTO resp = new ResponseDTO();
         resp.setMessage("Project created");
         return resp;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> getProjectsByUserId(Long userId) {
         if (userId == null) throw new TMSException("userId required");
-        List<Project> projects = projectRepository.findByUser_Id(userId);
-        List<ProjectDTO> dtos = new ArrayList<>();
-        for (Project p : projects) {
-            ProjectDTO dto = new ProjectDTO();
-            dto.setId(p.getId());
-            dto.setTitle(p.getTitle());
-            dto.setDescription(p.getDescription());
-            dto.setStartDate(p.getStartDate());
-            dto.setEndDate(p.getEndDate());
-            if (p.getUser() != null) dto.setUserId(p.getUser().getId());
-            dtos.add(dto);
-        }
-        return dtos;
+        readYourWrites.readingFor(userId);
+        return projectRepository.findRowsByUserId(userId).stream().map(this::mapToDto).collect(Collectors.toList());
     }
 
     @Override
     @Transactional
     public ResponseDTO addTaskToProjectForUser(Long projectId, Long userId, TasksDTO tasksDTO) {
         if (projectId == null || userId == null || tasksDTO == null) throw new TMSException("Invalid input");
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new TMSException("Project not found"));
-        if (project.getUser() == null || !project.getUser().getId().equals(userId)) throw new TMSException("Unauthorized");
+        TaskStatus status = statusOrDefault(tasksDTO.getStatus());
+        checkOwnership(projectId, userId);
+        Project project = projectRepository.getReferenceById(projectId);
         Tasks t = new Tasks();
         t.setTitle(tasksDTO.getTitle());
         t.setDescription(tasksDTO.getDescription());
-        t.setStatus(tasksDTO.getStatus());
+        t.setStatus(status);
         t.setDueDate(tasksDTO.getDueDate());
         t.setPriority(tasksDTO.getPriority());
         t.setProject(project);
+        t.setOwnerId(userId);
         taskRepository.save(t);
+        statusCountRepository.adjust(projectId, status.code(), 1);
+        afterCommit(() -> {
+            taskSearchIndex.onTaskSaved(t.getId(), projectId, userId, t.getTitle(), t.getDescription());
+            announce(userId, ChangeEvent.taskCreated(projectId, t.getId(), t.getVersion()));
+        });
+        if (topTasksCache.isCached(userId)) {
+            TasksDTO saved = mapToDto(t);
+            afterCommit(() -> topTasksCache.onTaskSaved(userId, saved));
+        } else {
+            // nothing to update, but a top-K load racing with this insert must not be kept
+            afterCommit(() -> topTasksCache.evictUser(userId));
+        }
         ResponseDTO resp = new ResponseDTO();
         resp.setMessage("Task added");
         return resp;
     }
 
     @Override
+    @Transactional
+    public BulkTaskResponseDTO addTasksToProjectForUser(Long projectId, Long userId, List<TasksDTO> taskDTOs) {
+        if (projectId == null || userId == null || taskDTOs == null || taskDTOs.isEmpty()) throw new TMSException("Invalid input");
+        if (taskDTOs.size() > MAX_BULK_TASKS) throw new TMSException("At most " + MAX_BULK_TASKS + " tasks per request");
+        List<TaskStatus> statuses = new ArrayList<>(taskDTOs.size());
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            TasksDTO dto = taskDTOs.get(i);
+            if (dto == null || dto.getTitle() == null || dto.getTitle().isBlank()) throw new TMSException("Task " + i + ": title is required");
+            if (dto.getPriority() != null && (dto.getPriority() < 1 || dto.getPriority() > 10)) throw new TMSException("Task " + i + ": Priority must be between 1 and 10");
+            try {
+                statuses.add(statusOrDefault(dto.getStatus()));
+            } catch (TMSException e) {
+                throw new TMSException("Task " + i + ": " + e.getMessage());
+            }
+        }
+        checkOwnership(projectId, userId);
+        Project project = projectRepository.getReferenceById(projectId);
+
+        BulkTaskResponseDTO resp = new BulkTaskResponseDTO();
+        List<Tasks> batch = new ArrayList<>(bulkBatchSize);
+        Map<TaskStatus, Long> added = new EnumMap<>(TaskStatus.class);
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            TasksDTO dto = taskDTOs.get(i);
+            Tasks t = new Tasks();
+            t.setTitle(dto.getTitle());
+            t.setDescription(dto.getDescription());
+            t.setStatus(statuses.get(i));
+            added.merge(statuses.get(i), 1L, Long::sum);
+            t.setDueDate(dto.getDueDate());
+            t.setPriority(dto.getPriority());
+            t.setProject(project);
+            t.setOwnerId(userId);
+            entityManager.persist(t);
+            batch.add(t);
+            if (batch.size() == bulkBatchSize) flushBatch(batch, resp.getIds());
+        }
+        flushBatch(batch, resp.getIds());
+        // one counter update per distinct status, however many tasks there are
+        added.forEach((status, n) -> statusCountRepository.adjust(projectId, status.code(), n));
+        List<Long> ids = resp.getIds();
+        afterCommit(() -> {
+            topTasksCache.evictUser(userId);
+            for (int i = 0; i < ids.size(); i++) {
+                TasksDTO dto = taskDTOs.get(i);
+                taskSearchIndex.onTaskSaved(ids.get(i), projectId, userId, dto.getTitle(), dto.getDescription());
+            }
+            announce(userId, ChangeEvent.tasksChanged(projectId));
+        });
+        resp.setCreated(resp.getIds().size());
+        resp.setMessage("Tasks added");
+        return resp;
+    }
+
+    // one JDBC batch per flush; clearing keeps the persistence context from growing with the request
+    private void flushBatch(List<Tasks> batch, List<Long> ids) {
+        if (batch.isEmpty()) return;
+        entityManager.flush();
+        for (Tasks t : batch) ids.add(t.getId());
+        entityManager.clear();
+        batch.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<TasksDTO> fetchTasksForProjectAndUser(Long projectId, Long userId) {
         if (projectId == null || userId == null) throw new TMSException("Invalid input");
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new TMSException("Project not found"));
-        if (project.getUser() == null || !project.getUser().getId().equals(userId)) throw new TMSException("Unauthorized");
-        List<Tasks> tasks = taskRepository.findByProject(project);
-        return tasks.stream().map(this::mapToDto).collect(Collectors.toList());
+        readYourWrites.readingFor(userId);
+        checkOwnership(projectId, userId);
+        return taskRepository.findRowsByProjectId(projectId).stream().map(this::mapToDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageDTO fetchTaskPageForProjectAndUser(Long projectId, Long userId, TaskQueryDTO query) {
+        if (projectId == null || userId == null) throw new TMSException("Invalid input");
+        readYourWrites.readingFor(userId);
+        if (query == null) query = new TaskQueryDTO();
+        int limit = query.getLimit() == null ? DEFAULT_PAGE_SIZE : query.getLimit();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) throw new TMSException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        TaskStatus status = TaskStatus.parse(query.getStatus());
+        checkOwnership(projectId, userId);
+
+        // fetch one extra row to learn whether another page exists without a count query
+        PageRequest page = PageRequest.of(0, limit + 1);
+        Integer minPriority = query.getMinPriority();
+        Integer maxPriority = query.getMaxPriority();
+        LocalDate dueFrom = query.getDueFrom();
+        LocalDate dueTo = query.getDueTo();
+        List<TaskRow> rows;
+        if (query.getAfter() == null || query.getAfter().isBlank()) {
+            rows = status == null
+                    ? taskRepository.findPageByProject(projectId, minPriority, maxPriority, dueFrom, dueTo, page)
+                    : taskRepository.findPageByProjectAndStatus(projectId, status, minPriority, maxPriority, dueFrom, dueTo, page);
+        } else {
+            TaskCursor after = TaskCursor.decode(query.getAfter());
+            rows = status == null
+                    ? taskRepository.findPageByProjectAfter(projectId, after.createdAt(), after.id(),
+                            minPriority, maxPriority, dueFrom, dueTo, page)
+                    : taskRepository.findPageByProjectAndStatusAfter(projectId, status, after.createdAt(), after.id(),
+                            minPriority, maxPriority, dueFrom, dueTo, page);
+        }
+
+        TaskPageDTO result = new TaskPageDTO();
+        boolean hasMore = rows.size() > limit;
+        List<TaskRow> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        result.setTasks(pageRows.stream().map(this::mapToDto).collect(Collectors.toList()));
+        result.setHasMore(hasMore);
+        if (hasMore) {
+            TaskRow last = pageRows.get(pageRows.size() - 1);
+            result.setNextCursor(new TaskCursor(last.createdAt(), last.id()).encode());
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChangesDTO getTaskChangesForUser(Long userId, String since, Integer limit) {
+        if (userId == null) throw new TMSException("userId required");
+        // the watermark promises that everything behind it was seen, which a lagging replica cannot keep
+        readYourWrites.readFromPrimary();
+        int size = limit == null ? DEFAULT_SYNC_LIMIT : limit;
+        if (size < 1 || size > MAX_SYNC_LIMIT) throw new TMSException("limit must be between 1 and " + MAX_SYNC_LIMIT);
+        SyncWatermark from = since == null || since.isBlank() ? null : SyncWatermark.decode(since);
+        // a write stamped before this but still uncommitted would otherwise end up behind the watermark
+        LocalDateTime until = LocalDateTime.now().minus(syncCommitLag).truncatedTo(ChronoUnit.MICROS);
+
+        TaskChangesDTO result = new TaskChangesDTO();
+        if (from != null && from.updatedAt().isBefore(until.minus(tombstoneRetention))) {
+            // deletions that old may already be purged, so only a full sync is complete
+            from = null;
+            result.setReset(true);
+        }
+        List<TaskRow> rows = taskRepository.findChangedByOwner(userId,
+                from == null ? SYNC_EPOCH : from.updatedAt(), from == null ? 0 : from.afterId(), until,
+                PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<TaskRow> pageRows = hasMore ? rows.subList(0, size) : rows;
+        SyncWatermark to;
+        if (hasMore) {
+            TaskRow last = pageRows.get(pageRows.size() - 1);
+            to = new SyncWatermark(last.updatedAt(), last.id());
+        } else if (from != null && from.updatedAt().isAfter(until)) {
+            to = from;
+        } else {
+            to = new SyncWatermark(until, null);
+        }
+        result.setTasks(pageRows.stream().map(this::mapToDto).collect(Collectors.toList()));
+        // a full sync starts from nothing, so there is nothing to delete
+        if (from != null && to.updatedAt().isAfter(from.updatedAt())) {
+            result.setDeleted(tombstoneRepository.findByOwnerBetween(userId, from.updatedAt(), to.updatedAt())
+                    .stream().map(this::mapToDto).collect(Collectors.toList()));
+        }
+        result.setWatermark(to.encode());
+        result.setHasMore(hasMore);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSearchPageDTO searchTasksForUser(Long userId, String q, Integer offset, Integer limit) {
+        if (userId == null) throw new TMSException("userId required");
+        readYourWrites.readingFor(userId);
+        if (q == null || q.isBlank()) throw new TMSException("q required");
+        int from = offset == null ? 0 : offset;
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (from < 0 || from > MAX_SEARCH_OFFSET) throw new TMSException("offset must be between 0 and " + MAX_SEARCH_OFFSET);
+        if (size < 1 || size > MAX_SEARCH_LIMIT) throw new TMSException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+
+        // one extra id tells whether another page exists
+        List<Long> ids = taskSearchIndex.search(userId, q.trim(), from, size + 1);
+        TaskSearchPageDTO result = new TaskSearchPageDTO();
+        if (ids.size() > size) {
+            ids = ids.subList(0, size);
+            // matches past the offset cap are not paged to; a narrower query finds them
+            if (from + size <= MAX_SEARCH_OFFSET) {
+                result.setHasMore(true);
+                result.setNextOffset(from + size);
+            }
+        }
+        if (ids.isEmpty()) return result;
+
+        // the index ranks, the rows come back in arbitrary order
+        Map<Long, TaskRow> rows = new HashMap<>();
+        for (TaskRow row : taskRepository.findRowsByIdsAndOwner(ids, userId)) rows.put(row.id(), row);
+        for (Long id : ids) {
+            TaskRow row = rows.get(id);
+            if (row != null) result.getTasks().add(mapToDto(row));
+        }
+        return result;
     }
 
     @Override
     public TasksDTO fetchTaskById(Long id) {
-        Tasks t = taskRepository.findById(id).orElseThrow(() -> new TMSException("Id not found"));
-        return mapToDto(t);
+        return taskDetailCache.get(id, key -> readPrimary(() -> taskRepository.findRowById(key).map(this::mapToDto)))
+                .orElseThrow(() -> new TMSException("Id not found"));
     }
 
     @Override
     @Transactional
     public ResponseDTO updateTask(TasksDTO taskDTO, Long id) {
-        Tasks existing = taskRepository.findById(id).orElseThrow(() -> new TMSException("Id not found"));
+        Tasks existing = taskRepository.findByIdForUpdate(id).orElseThrow(() -> new TMSException("Id not found"));
         if (taskDTO.getPriority() == null) throw new TMSException("Priority must be provided by the user");
         if (taskDTO.getPriority() < 1 || taskDTO.getPriority() > 10) throw new TMSException("Priority must be between 1 and 10");
+        TaskStatus status = statusOrDefault(taskDTO.getStatus());
+        countStatusChange(existing, status);
         existing.setTitle(taskDTO.getTitle());
         existing.setDescription(taskDTO.getDescription());
-        existing.setStatus(taskDTO.getStatus());
+        existing.setStatus(status);
         existing.setDueDate(taskDTO.getDueDate());
         existing.setPriority(taskDTO.getPriority());
         existing.setUpdatedAt(LocalDateTime.now());
-        taskRepository.save(existing);
+        // flushed here so the copies handed to the caches already carry the new version
+        taskRepository.saveAndFlush(existing);
+        Long ownerId = ownerOf(existing);
+        TasksDTO saved = mapToDto(existing);
+        Long projectId = existing.getProject() == null ? null : existing.getProject().getId();
+        afterCommit(() -> {
+            taskDetailCache.invalidate(id);
+            topTasksCache.onTaskSaved(ownerId, saved);
+            taskSearchIndex.onTaskSaved(id, projectId, ownerId, saved.getTitle(), saved.getDescription());
+            announce(ownerId, ChangeEvent.taskUpdated(projectId, id, saved.getVersion()));
+        });
         ResponseDTO resp = new ResponseDTO();
         resp.setMessage("Task updated successfully");
         return resp;
@@ -174,8 +624,12 @@ public UserDTO loginUser(UserDTO credentials) {
     @Override
     @Transactional
     public ResponseDTO partialUpdateTask(Long id, TasksDTO partial) {
-        Tasks existing = taskRepository.findById(id).orElseThrow(() -> new TMSException("Id not found"));
-        if (partial.getStatus() != null) existing.setStatus(partial.getStatus());
+        Tasks existing = taskRepository.findByIdForUpdate(id).orElseThrow(() -> new TMSException("Id not found"));
+        TaskStatus status = TaskStatus.parse(partial.getStatus());
+        if (status != null) {
+            countStatusChange(existing, status);
+            existing.setStatus(status);
+        }
         if (partial.getTitle() != null) existing.setTitle(partial.getTitle());
         if (partial.getDescription() != null) existing.setDescription(partial.getDescription());
         if (partial.getPriority() != null) {
@@ -183,17 +637,159 @@ public UserDTO loginUser(UserDTO credentials) {
             existing.setPriority(partial.getPriority());
         }
         existing.setUpdatedAt(LocalDateTime.now());
-        taskRepository.save(existing);
+        taskRepository.saveAndFlush(existing);
+        Long ownerId = ownerOf(existing);
+        TasksDTO saved = mapToDto(existing);
+        Long projectId = existing.getProject() == null ? null : existing.getProject().getId();
+        afterCommit(() -> {
+            taskDetailCache.invalidate(id);
+            topTasksCache.onTaskSaved(ownerId, saved);
+            taskSearchIndex.onTaskSaved(id, projectId, ownerId, saved.getTitle(), saved.getDescription());
+            announce(ownerId, ChangeEvent.taskUpdated(projectId, id, saved.getVersion()));
+        });
         ResponseDTO resp = new ResponseDTO();
         resp.setMessage("Task partially updated");
         return resp;
     }
 
+    @Override
+    @Transactional
+    public ResponseDTO updateTask(TasksDTO taskDTO, Long id, long expectedVersion) {
+        if (taskDTO.getPriority() == null) throw new TMSException("Priority must be provided by the user");
+        if (taskDTO.getPriority() < 1 || taskDTO.getPriority() > 10) throw new TMSException("Priority must be between 1 and 10");
+        TaskStatus status = statusOrDefault(taskDTO.getStatus());
+        LocalDateTime now = LocalDateTime.now();
+        TaskRow before = taskRepository.replaceIfVersion(id, expectedVersion, taskDTO.getTitle(), taskDTO.getDescription(),
+                status, taskDTO.getDueDate(), taskDTO.getPriority(), now)
+                .orElseThrow(() -> versionConflict(id, expectedVersion));
+        afterConditionalUpdate(before, taskDTO, status, true, now);
+        ResponseDTO resp = new ResponseDTO();
+        resp.setMessage("Task updated successfully");
+        return resp;
+    }
+
+    @Override
+    @Transactional
+    public ResponseDTO partialUpdateTask(Long id, TasksDTO partial, long expectedVersion) {
+        TaskStatus status = TaskStatus.parse(partial.getStatus());
+        if (partial.getPriority() != null && (partial.getPriority() < 1 || partial.getPriority() > 10)) throw new TMSException("Priority must be between 1 and 10");
+        LocalDateTime now = LocalDateTime.now();
+        TaskRow before = taskRepository.patchIfVersion(id, expectedVersion, partial.getTitle(), partial.getDescription(),
+                status, partial.getPriority(), now)
+                .orElseThrow(() -> versionConflict(id, expectedVersion));
+        afterConditionalUpdate(before, partial, status, false, now);
+        ResponseDTO resp = new ResponseDTO();
+        resp.setMessage("Task partially updated");
+        return resp;
+    }
+
+    // only the failed path pays for a read, to tell a missing task from a stale version
+    private TMSException versionConflict(Long id, long expectedVersion) {
+        if (!taskRepository.existsById(id)) return new TMSException("Id not found");
+        return new TaskVersionConflictException("Task " + id + " has changed since version " + expectedVersion);
+    }
+
+    // The update returned the row it replaced, so the status it left, the new state and the owner all
+    // follow without a read. Counters move after the task row, the lock order of every other write path.
+    private void afterConditionalUpdate(TaskRow before, TasksDTO changes, TaskStatus status, boolean replace, LocalDateTime now) {
+        Long id = before.id();
+        if (status != null && before.status() != null && before.status() != status && before.projectId() != null) {
+            statusCountRepository.move(before.projectId(), before.status().code(), status.code(), 1);
+        }
+        TasksDTO saved = withChanges(mapToDto(before), changes, status, replace, now);
+        if (saved.getProjectDTO() == null) {
+            afterCommit(() -> taskDetailCache.invalidate(id));
+            return;
+        }
+        Long ownerId = saved.getProjectDTO().getUserId();
+        Long projectId = saved.getProjectDTO().getId();
+        afterCommit(() -> {
+            taskDetailCache.invalidate(id);
+            topTasksCache.onTaskSaved(ownerId, saved);
+            taskSearchIndex.onTaskSaved(id, projectId, ownerId, saved.getTitle(), saved.getDescription());
+            announce(ownerId, ChangeEvent.taskUpdated(projectId, id, saved.getVersion()));
+        });
+    }
+
+    private static TasksDTO withChanges(TasksDTO before, TasksDTO changes, TaskStatus status, boolean replace, LocalDateTime now) {
+        TasksDTO dto = new TasksDTO();
+        dto.setId(before.getId());
+        dto.setTitle(replace || changes.getTitle() != null ? changes.getTitle() : before.getTitle());
+        dto.setDescription(replace || changes.getDescription() != null ? changes.getDescription() : before.getDescription());
+        dto.setStatus(status != null ? status.value() : before.getStatus());
+        dto.setDueDate(replace ? changes.getDueDate() : before.getDueDate());
+        dto.setPriority(replace || changes.getPriority() != null ? changes.getPriority() : before.getPriority());
+        dto.setCreatedAt(before.getCreatedAt());
+        dto.setUpdatedAt(now);
+        dto.setVersion(before.getVersion() + 1);
+        dto.setProjectDTO(before.getProjectDTO());
+        return dto;
+    }
+
+    @Override
+    @Transactional
+    public BulkUpdateResponseDTO bulkPatchTasks(Long userId, BulkTaskPatchDTO patch) {
+        if (userId == null || patch == null) throw new TMSException("Invalid input");
+        if (patch.getStatus() == null && patch.getPriority() == null) throw new TMSException("Nothing to update");
+        if (patch.getPriority() != null && (patch.getPriority() < 1 || patch.getPriority() > 10)) throw new TMSException("Priority must be between 1 and 10");
+        boolean byIds = patch.getIds() != null && !patch.getIds().isEmpty();
+        if (byIds == (patch.getProjectId() != null)) throw new TMSException("Provide either ids or projectId");
+        TaskStatus status = TaskStatus.parse(patch.getStatus());
+        TaskStatus fromStatus = TaskStatus.parse(patch.getFromStatus());
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        List<Long> ids = byIds ? patch.getIds().stream().distinct().collect(Collectors.toList()) : List.of();
+        if (byIds) {
+            for (int from = 0; from < ids.size(); from += bulkUpdateChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + bulkUpdateChunkSize, ids.size()));
+                if (status == null) {
+                    updated += taskRepository.patchByIds(chunk, userId, null, patch.getPriority(), now);
+                    continue;
+                }
+                Map<Long, List<Long>> idsByProject = new LinkedHashMap<>();
+                for (TaskProjectRow row : taskRepository.findProjectsByIdsAndOwner(chunk, userId)) {
+                    idsByProject.computeIfAbsent(row.projectId(), k -> new ArrayList<>()).add(row.id());
+                }
+                for (Map.Entry<Long, List<Long>> e : idsByProject.entrySet()) {
+                    updated += patchStatus(e.getKey(), e.getValue(), null, status, patch.getPriority(), now);
+                }
+            }
+        } else {
+            checkOwnership(patch.getProjectId(), userId);
+            updated = status == null
+                    ? taskRepository.patchByProject(patch.getProjectId(), fromStatus, null, patch.getPriority(), now)
+                    : patchStatus(patch.getProjectId(), null, fromStatus, status, patch.getPriority(), now);
+        }
+        afterCommit(() -> {
+            if (byIds) taskDetailCache.invalidateAll(ids);
+            else taskDetailCache.invalidateProject(patch.getProjectId());
+            topTasksCache.evictUser(userId);
+            // ids may span projects, so clients of any of the user's projects reload
+            announce(userId, ChangeEvent.tasksChanged(byIds ? null : patch.getProjectId()));
+        });
+        BulkUpdateResponseDTO resp = new BulkUpdateResponseDTO();
+        resp.setUpdated(updated);
+        resp.setMessage("Tasks updated");
+        return resp;
+    }
+
     @Override
     @Transactional
     public ResponseDTO deleteTask(Long id) {
-        Tasks t = taskRepository.findById(id).orElseThrow(() -> new TMSException("Id not found"));
+        Tasks t = taskRepository.findByIdForUpdate(id).orElseThrow(() -> new TMSException("Id not found"));
+        Long ownerId = ownerOf(t);
+        Long projectId = t.getProject() == null ? null : t.getProject().getId();
+        countStatusChange(t, null);
         taskRepository.delete(t);
+        // a task outside any project never reached a sync client
+        if (ownerId != null) entityManager.persist(new Tombstone(ownerId, Tombstone.Kind.TASK, id, projectId, LocalDateTime.now()));
+        afterCommit(() -> {
+            taskDetailCache.invalidate(id);
+            topTasksCache.onTaskDeleted(ownerId, id);
+            taskSearchIndex.onTaskDeleted(id);
+            announce(ownerId, ChangeEvent.taskDeleted(projectId, id));
+        });
         ResponseDTO resp = new ResponseDTO();
         resp.setMessage("Task deleted");
         return resp;
@@ -203,42 +799,264 @@ public UserDTO loginUser(UserDTO credentials) {
     @Transactional
     public ResponseDTO deleteProjectAndAssociatedTasksForUser(Long projectId, Long userId) {
         if (projectId == null || userId == null) throw new TMSException("Invalid input");
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new TMSException("Project not found"));
-        if (project.getUser() == null || !project.getUser().getId().equals(userId)) throw new TMSException("Unauthorized");
-        projectRepository.delete(project);
+        checkOwnership(projectId, userId);
+        if (statusCountRepository.sumByProjectId(projectId) > purgeAsyncThreshold) {
+            // hide the project now and let ProjectPurgeWorker remove its tasks in bounded chunks
+            projectRepository.markDeleted(projectId);
+        } else {
+            taskRepository.deleteByProjectId(projectId);
+            projectRepository.deleteEmptyById(projectId);
+        }
+        // counters after the tasks, the lock order task writes take
+        statusCountRepository.deleteByProjectId(projectId);
+        // one tombstone covers the project's tasks, however they are removed
+        entityManager.persist(new Tombstone(userId, Tombstone.Kind.PROJECT, projectId, projectId, LocalDateTime.now()));
+        afterCommit(() -> {
+            projectOwnerCache.invalidate(projectId);
+            taskDetailCache.invalidateProject(projectId);
+            topTasksCache.evictUser(userId);
+            taskSearchIndex.onProjectDeleted(projectId);
+            announce(userId, ChangeEvent.projectDeleted(projectId));
+        });
         ResponseDTO resp = new ResponseDTO();
         resp.setMessage("Project deleted");
         return resp;
     }
 
-@Override
-public List<TasksDTO> getTopFivePriorityTasksForUser(Long userId) {
-    if (userId == null) throw new TMSException("userId required");
-    List<Tasks> tasks = taskRepository.findByProject_User_Id(userId);
-    return tasks.stream()
-            .sorted((a, b) -> {
-                int pa = a.getPriority() == null ? 0 : a.getPriority();
-                int pb = b.getPriority() == null ? 0 : b.getPriority();
-                return Integer.compare(pb, pa);
-            })
-            .limit(5)
-            .map(this::mapToDto)
-            .collect(Collectors.toList());
-}
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectStatusCountsDTO> getStatusCountsForUser(Long userId) {
+        if (userId == null) throw new TMSException("userId required");
+        readYourWrites.readingFor(userId);
+        Map<Long, ProjectStatusCountsDTO> byProject = new LinkedHashMap<>();
+        for (ProjectStatusRow row : statusCountRepository.findRowsByUserId(userId)) {
+            ProjectStatusCountsDTO dto = byProject.computeIfAbsent(row.projectId(), id -> {
+                ProjectStatusCountsDTO d = new ProjectStatusCountsDTO();
+                d.setProjectId(id);
+                d.setProjectTitle(row.projectTitle());
+                return d;
+            });
+            dto.getCounts().put(TaskStatus.fromCode(row.statusCode()).value(), row.taskCount());
+            dto.setTotal(dto.getTotal() + row.taskCount());
+        }
+        return new ArrayList<>(byProject.values());
+    }
+
+    // four statements however many projects there are: projects, status counters, overdue counts, upcoming tasks
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardDTO getDashboardForUser(Long userId, int upcoming) {
+        if (userId == null) throw new TMSException("userId required");
+        readYourWrites.readingFor(userId);
+        if (upcoming < 0 || upcoming > MAX_DASHBOARD_UPCOMING) throw new TMSException("upcoming must be between 0 and " + MAX_DASHBOARD_UPCOMING);
+        LocalDate today = LocalDate.now();
+
+        Map<Long, DashboardProjectDTO> byProject = new LinkedHashMap<>();
+        for (ProjectRow row : projectRepository.findRowsByUserId(userId)) {
+            DashboardProjectDTO dto = new DashboardProjectDTO();
+            dto.setProject(mapToDto(row));
+            for (TaskStatus status : TaskStatus.values()) dto.getStatusCounts().put(status.value(), 0L);
+            byProject.put(row.id(), dto);
+        }
+        DashboardDTO result = new DashboardDTO();
+        if (byProject.isEmpty()) return result;
 
+        for (ProjectStatusRow row : statusCountRepository.findRowsByUserId(userId)) {
+            DashboardProjectDTO dto = byProject.get(row.projectId());
+            if (dto == null) continue;
+            dto.getStatusCounts().put(TaskStatus.fromCode(row.statusCode()).value(), row.taskCount());
+            dto.setTaskCount(dto.getTaskCount() + row.taskCount());
+        }
+        for (ProjectCountRow row : taskRepository.countOverdueByOwner(userId, today, TaskStatus.COMPLETED)) {
+            DashboardProjectDTO dto = byProject.get(row.projectId());
+            if (dto != null) dto.setOverdueCount(row.count());
+        }
+        if (upcoming > 0) {
+            for (TaskRow row : taskRepository.findUpcomingByOwner(userId, today, TaskStatus.COMPLETED, upcoming)) {
+                DashboardProjectDTO dto = byProject.get(row.projectId());
+                if (dto != null) dto.getUpcomingTasks().add(mapToDto(row));
+            }
+        }
+
+        result.getProjects().addAll(byProject.values());
+        for (DashboardProjectDTO dto : result.getProjects()) {
+            result.setTaskCount(result.getTaskCount() + dto.getTaskCount());
+            result.setOverdueCount(result.getOverdueCount() + dto.getOverdueCount());
+        }
+        return result;
+    }
+
+    // one update per source status, so each statement's row count is exactly what moves between two counters
+    private int patchStatus(Long projectId, List<Long> ids, TaskStatus fromStatus, TaskStatus status, Integer priority, LocalDateTime now) {
+        int updated = 0;
+        for (TaskStatus source : TaskStatus.values()) {
+            if (fromStatus != null && source != fromStatus) continue;
+            int n = ids == null
+                    ? taskRepository.patchByProject(projectId, source, status, priority, now)
+                    : taskRepository.patchByIdsInProject(ids, projectId, source, status, priority, now);
+            if (n > 0 && source != status) statusCountRepository.move(projectId, source.code(), status.code(), n);
+            updated += n;
+        }
+        return updated;
+    }
+
+    // to == null means the task is going away
+    private void countStatusChange(Tasks t, TaskStatus to) {
+        TaskStatus from = t.getStatus();
+        Long projectId = t.getProject() == null ? null : t.getProject().getId();
+        if (projectId == null || from == to) return;
+        if (from == null) statusCountRepository.adjust(projectId, to.code(), 1);
+        else if (to == null) statusCountRepository.adjust(projectId, from.code(), -1);
+        else statusCountRepository.move(projectId, from.code(), to.code(), 1);
+    }
+
+    private static TaskStatus statusOrDefault(String status) {
+        TaskStatus parsed = TaskStatus.parse(status);
+        return parsed == null ? TaskStatus.PENDING : parsed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTasksForUser(Long userId, OutputStream out) throws IOException {
+        if (userId == null) throw new TMSException("userId required");
+        readYourWrites.readingFor(userId);
+        ObjectWriter writer = objectMapper.writerFor(TasksDTO.class);
+        long written = 0;
+        // TaskRow is a projection, so rows never enter the persistence context and memory stays flat
+        try (Stream<TaskRow> rows = taskRepository.streamRowsByOwner(userId)) {
+            for (TaskRow row : (Iterable<TaskRow>) rows::iterator) {
+                out.write(writer.writeValueAsBytes(mapToDto(row)));
+                out.write('\n');
+                if (++written % EXPORT_FLUSH_EVERY == 0) out.flush();
+            }
+        }
+        out.flush();
+        return written;
+    }
+
+    @Override
+    public List<TasksDTO> getTopFivePriorityTasksForUser(Long userId) {
+        return getTopPriorityTasksForUser(userId, 5);
+    }
+
+    @Override
+    public List<TasksDTO> getTopPriorityTasksForUser(Long userId, int limit) {
+        if (userId == null) throw new TMSException("userId required");
+        if (limit < 1 || limit > MAX_TOP_TASKS) throw new TMSException("limit must be between 1 and " + MAX_TOP_TASKS);
+        return topTasksCache.top(userId, limit, n -> readPrimary(() -> taskRepository.findTopByOwner(userId, PageRequest.of(0, n))
+                .stream().map(this::mapToDto).collect(Collectors.toList())));
+    }
+
+    // mapping methods are package-private so MappingBenchmark can measure them directly
+    TasksDTO mapToDto(TaskRow row) {
+        TasksDTO dto = new TasksDTO();
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setDescription(row.description());
+        dto.setStatus(row.status() == null ? null : row.status().value());
+        dto.setDueDate(row.dueDate());
+        dto.setPriority(row.priority());
+        dto.setCreatedAt(row.createdAt());
+        dto.setUpdatedAt(row.updatedAt());
+        dto.setVersion(row.version());
+        if (row.projectId() != null) {
+            ProjectDTO p = new ProjectDTO();
+            p.setId(row.projectId());
+            p.setTitle(row.projectTitle());
+            p.setDescription(row.projectDescription());
+            p.setStartDate(row.projectStartDate());
+            p.setEndDate(row.projectEndDate());
+            p.setUserId(row.ownerId());
+            dto.setProjectDTO(p);
+        }
+        return dto;
+    }
+
+    ProjectDTO mapToDto(ProjectRow row) {
+        ProjectDTO dto = new ProjectDTO();
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setDescription(row.description());
+        dto.setStartDate(row.startDate());
+        dto.setEndDate(row.endDate());
+        dto.setUserId(row.userId());
+        return dto;
+    }
+
+    TombstoneDTO mapToDto(Tombstone t) {
+        TombstoneDTO dto = new TombstoneDTO();
+        dto.setType(t.getKind().name().toLowerCase(Locale.ROOT));
+        dto.setId(t.getEntityId());
+        dto.setProjectId(t.getProjectId());
+        dto.setDeletedAt(t.getDeletedAt());
+        return dto;
+    }
+
+    @Override
+    public Map<String, CacheStats> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("projectOwners", projectOwnerCache.stats());
+        stats.put("topTasks", topTasksCache.stats());
+        stats.put("taskDetails", taskDetailCache.stats());
+        stats.put("authenticatedUsers", authenticatedUserCache.stats());
+        stats.putAll(secondLevelCacheStats.regions());
+        return stats;
+    }
+
+    private void checkOwnership(Long projectId, Long userId) {
+        // owners never change and misses are not cached, so a replica may answer this one
+        Long ownerId = projectOwnerCache.ownerOf(projectId, projectRepository::findOwnerIdById)
+                .orElseThrow(() -> new TMSException("Project not found"));
+        if (!ownerId.equals(userId)) throw new TMSException("Unauthorized");
+    }
+
+    private Long ownerOf(Tasks t) {
+        if (t.getProject() == null || t.getProject().getUser() == null) return null;
+        return t.getProject().getUser().getId();
+    }
+
+    // caches outlive a replica's lag, so what they load is read from the primary
+    private <T> T readPrimary(Supplier<T> read) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return tx.execute(status -> {
+            readYourWrites.readFromPrimary();
+            return read.get();
+        });
+    }
+
+    // the writer's next reads go to the primary until replicas have caught up with this commit
+    private void announce(Long ownerId, ChangeEvent event) {
+        readYourWrites.recordWrite(ownerId);
+        changeEvents.publish(ownerId, event);
+    }
+
+    // caches must only see committed state, otherwise a rollback would leave them ahead of the database
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 
-    private TasksDTO mapToDto(Tasks t) {
+    TasksDTO mapToDto(Tasks t) {
         if (t == null) return null;
         TasksDTO dto = new TasksDTO();
         dto.setId(t.getId());
         dto.setTitle(t.getTitle());
         dto.setDescription(t.getDescription());
-        dto.setStatus(t.getStatus());
+        dto.setStatus(t.getStatus() == null ? null : t.getStatus().value());
         dto.setDueDate(t.getDueDate());
         dto.setPriority(t.getPriority());
         dto.setCreatedAt(t.getCreatedAt());
         dto.setUpdatedAt(t.getUpdatedAt());
+        dto.setVersion(t.getVersion());
         if (t.getProject() != null) {
             ProjectDTO p = new ProjectDTO();
             p.setId(t.getProject().getId());
@@ -0,0 +1,41 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.repository.TombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Drops tombstones past {@code tms.sync.tombstone-retention}. Clients that last synced before
+ * then get a full reset from delta sync, so nothing older is ever read.
+ */
+@Component
+public class TombstonePurgeWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstonePurgeWorker.class);
+
+    private final TombstoneRepository tombstoneRepository;
+    private final TransactionTemplate tx;
+    private final Duration retention;
+
+    public TombstonePurgeWorker(TombstoneRepository tombstoneRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${tms.sync.tombstone-retention:30d}") Duration retention) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${tms.sync.tombstone-purge-interval-ms:3600000}")
+    public void purgeExpiredTombstones() {
+        Integer removed = tx.execute(status -> tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(retention)));
+        if (removed != null && removed > 0) log.info("Purged {} expired tombstones", removed);
+    }
+}
@@ -1,28 +1,59 @@
 package com.taskmanager.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
-
+import java.util.Map;
+
+import com.taskmanager.cache.CacheStats;
+import com.taskmanager.dto.BulkTaskPatchDTO;
+import com.taskmanager.dto.BulkTaskResponseDTO;
+import com.taskmanager.dto.BulkUpdateResponseDTO;
+import com.taskmanager.dto.BulkUserResponseDTO;
+import com.taskmanager.dto.DashboardDTO;
 import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.ProjectStatusCountsDTO;
 import com.taskmanager.dto.ResponseDTO;
+import com.taskmanager.dto.TaskChangesDTO;
+import com.taskmanager.dto.TaskPageDTO;
+import com.taskmanager.dto.TaskQueryDTO;
+import com.taskmanager.dto.TaskSearchPageDTO;
 import com.taskmanager.dto.TasksDTO;
 import com.taskmanager.dto.UserDTO;
 
 public interface TMSService {
 
     ResponseDTO registerUser(UserDTO userDTO);
+    BulkUserResponseDTO registerUsers(List<UserDTO> userDTOs);
     UserDTO loginUser(UserDTO credentials);
 
     ResponseDTO createProjectForExistingUser(ProjectDTO dto);
     List<ProjectDTO> getProjectsByUserId(Long userId);
+    List<ProjectStatusCountsDTO> getStatusCountsForUser(Long userId);
+    DashboardDTO getDashboardForUser(Long userId, int upcoming);
     ResponseDTO deleteProjectAndAssociatedTasksForUser(Long projectId, Long userId);
 
     ResponseDTO addTaskToProjectForUser(Long projectId, Long userId, TasksDTO taskDTO);
+    BulkTaskResponseDTO addTasksToProjectForUser(Long projectId, Long userId, List<TasksDTO> taskDTOs);
     List<TasksDTO> fetchTasksForProjectAndUser(Long projectId, Long userId);
+    TaskPageDTO fetchTaskPageForProjectAndUser(Long projectId, Long userId, TaskQueryDTO query);
+    TaskSearchPageDTO searchTasksForUser(Long userId, String q, Integer offset, Integer limit);
+    // tasks changed and deleted after the watermark of an earlier call; without one, a full sync
+    TaskChangesDTO getTaskChangesForUser(Long userId, String since, Integer limit);
     TasksDTO fetchTaskById(Long id);
     ResponseDTO updateTask(TasksDTO taskDTO, Long id);
     ResponseDTO partialUpdateTask(Long id, TasksDTO partial);
+    // only applied while the task is still at expectedVersion, otherwise TaskVersionConflictException
+    ResponseDTO updateTask(TasksDTO taskDTO, Long id, long expectedVersion);
+    ResponseDTO partialUpdateTask(Long id, TasksDTO partial, long expectedVersion);
+    BulkUpdateResponseDTO bulkPatchTasks(Long userId, BulkTaskPatchDTO patch);
     ResponseDTO deleteTask(Long id);
 
+    long exportTasksForUser(Long userId, OutputStream out) throws IOException;
+
     List<TasksDTO> getTopFivePriorityTasksForUser(Long userId);
+    List<TasksDTO> getTopPriorityTasksForUser(Long userId, int limit);
+
+    Map<String, CacheStats> getCacheStats();
 
 }
@@ -0,0 +1,39 @@
+-- The schema ddl-auto=update built from the entities before Flyway took over, as Hibernate wrote it
+-- (constraint and index names included). Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) instead of running it; every later change is a migration of its own.
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(150) not null,
+    name varchar(100) not null,
+    primary key (id),
+    unique (name),
+    unique (email)
+);
+
+create table projects (
+    id bigint generated by default as identity,
+    description varchar(255),
+    end_date date,
+    start_date date,
+    title varchar(255) not null,
+    user_id bigint,
+    primary key (id)
+);
+
+create table tasks (
+    id bigint generated by default as identity,
+    created_at timestamp(6),
+    description varchar(255),
+    due_date date,
+    priority integer,
+    status varchar(255),
+    title varchar(255),
+    updated_at timestamp(6),
+    project_id bigint,
+    primary key (id)
+);
+
+create index IDXtjhqwalyna982dhwdnx5ksuwv on projects (title);
+alter table projects add constraint FKhswfwa3ga88vxv1pmboss6jhm foreign key (user_id) references users;
+alter table tasks add constraint FKsfhn82y57i3k9uxww1s007acc foreign key (project_id) references projects;
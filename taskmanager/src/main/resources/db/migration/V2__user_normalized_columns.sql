@@ -0,0 +1,8 @@
+-- trimmed, lower-cased copies of name and email so case-insensitive lookups can use a plain index
+alter table users add column name_normalized varchar(100);
+alter table users add column email_normalized varchar(150);
+
+update users set name_normalized = lower(trim(name)), email_normalized = lower(trim(email));
+
+create index idx_users_name_normalized on users (name_normalized);
+create index idx_users_email_normalized on users (email_normalized);
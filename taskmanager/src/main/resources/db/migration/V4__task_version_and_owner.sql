@@ -0,0 +1,10 @@
+-- version: optimistic locking and the ETag/If-Match of the task endpoints
+alter table tasks add column version bigint default 0 not null;
+
+-- owner_id: the project's user, copied so delta sync can seek (owner_id, updated_at)
+alter table tasks add column owner_id bigint;
+update tasks set owner_id = (select p.user_id from projects p where p.id = tasks.project_id)
+where project_id is not null;
+
+-- delta sync orders by updated_at, which rows written before it may lack
+update tasks set updated_at = coalesce(created_at, current_timestamp) where updated_at is null;
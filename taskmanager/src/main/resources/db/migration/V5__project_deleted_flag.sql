@@ -0,0 +1,2 @@
+-- set while ProjectPurgeWorker removes the tasks of a large project in the background
+alter table projects add column deleted boolean default false not null;
@@ -0,0 +1,12 @@
+-- tasks.status was free text; it becomes a smallint code (as in TaskStatus). Known spellings map to
+-- their code, anything else, null included, becomes pending.
+alter table tasks add column status_code smallint;
+
+update tasks set status_code = case lower(trim(status))
+        when 'pending' then 0 when 'todo' then 0
+        when 'in-progress' then 1 when 'in_progress' then 1
+        when 'completed' then 2 when 'done' then 2
+        else 0 end;
+
+alter table tasks drop column status;
+alter table tasks add constraint ck_tasks_status_code check (status_code in (0, 1, 2));
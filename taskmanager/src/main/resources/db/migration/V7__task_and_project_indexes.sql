@@ -0,0 +1,13 @@
+-- one index per access path: task pages (all, or by status) in creation order, priority and due
+-- date per project, delta sync and the top-priority list per owner
+create index idx_tasks_project_created on tasks (project_id, created_at, id);
+create index idx_tasks_project_status_code_created on tasks (project_id, status_code, created_at, id);
+create index idx_tasks_project_priority on tasks (project_id, priority desc, id);
+create index idx_tasks_project_due on tasks (project_id, due_date, id);
+create index idx_tasks_owner_updated on tasks (owner_id, updated_at, id);
+-- nulls last, as findTopByOwner orders; a plain desc index puts nulls first in PostgreSQL
+create index idx_tasks_owner_priority on tasks (owner_id, priority desc nulls last, id);
+
+-- the title index keeps the name Hibernate generated for it, made readable
+alter index IDXtjhqwalyna982dhwdnx5ksuwv rename to idx_projects_title;
+create index idx_projects_user on projects (user_id);
@@ -0,0 +1,13 @@
+-- per-project task counts by status code, kept by relative updates on every task write; existing
+-- projects are counted once from their tasks
+create table project_status_counts (
+    project_id bigint not null,
+    status_code smallint not null,
+    task_count bigint not null,
+    primary key (project_id, status_code)
+);
+
+insert into project_status_counts (project_id, status_code, task_count)
+select p.id, s.code, (select count(*) from tasks t where t.project_id = p.id and t.status_code = s.code)
+from projects p cross join (select 0 as code union all select 1 union all select 2) s
+where p.deleted = false;
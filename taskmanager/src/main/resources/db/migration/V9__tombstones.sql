@@ -0,0 +1,11 @@
+-- deletions for delta sync, kept for tms.sync.tombstone-retention
+create table tombstones (
+    id bigint generated by default as identity,
+    owner_id bigint not null,
+    kind varchar(16) not null check (kind in ('TASK', 'PROJECT')),
+    entity_id bigint not null,
+    project_id bigint,
+    deleted_at timestamp(6) not null,
+    primary key (id)
+);
+create index idx_tombstones_owner_deleted on tombstones (owner_id, deleted_at, id);
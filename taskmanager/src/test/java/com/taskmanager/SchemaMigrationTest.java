@@ -0,0 +1,92 @@
+package com.taskmanager;
+
+import com.taskmanager.dto.ProjectStatusCountsDTO;
+import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.dto.UserDTO;
+import com.taskmanager.service.TMSService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the application on a database that ddl-auto built before Flyway took over, seeded from the
+ * V1 baseline itself: identity ids, free-text {@code tasks.status}, none of the later columns or
+ * tables. Flyway baselines it at V1 and runs every later migration; the context only starts if
+ * Hibernate's {@code validate} then accepts the schema.
+ */
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:legacy-schema;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void baselinedDatabaseIsMigratedAndValidates() throws Exception {
+        // one session for the whole test: H2 loses the check constraints of a table altered in a session that has since closed
+        SingleConnectionDataSource legacy = new SingleConnectionDataSource(URL, "sa", "", true);
+        JdbcTemplate jdbc = new JdbcTemplate(legacy);
+        for (String statement : new ClassPathResource("db/migration/V1__baseline_schema.sql")
+                .getContentAsString(StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "").split(";")) {
+            String sql = statement.trim();
+            if (!sql.isEmpty()) jdbc.execute(sql);
+        }
+        // rows as the IDENTITY columns numbered them, which the sequences introduced later must not hand out again
+        jdbc.update("insert into users (name, email) values ('Legacy', ' Legacy@Example.com ')");
+        Long userId = jdbc.queryForObject("select id from users", Long.class);
+        jdbc.update("insert into projects (title, user_id) values ('Old project', ?)", userId);
+        Long projectId = jdbc.queryForObject("select id from projects", Long.class);
+        String[] statuses = {"todo", " In-Progress ", "DONE", "completed", "someday", null};
+        for (int i = 0; i < statuses.length; i++) {
+            jdbc.update("insert into tasks (title, status, created_at, project_id) values (?, ?, current_timestamp, ?)",
+                    "legacy " + i, statuses[i], projectId);
+        }
+        Long lastLegacyTask = jdbc.queryForObject("select max(id) from tasks", Long.class);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskmanagerApplication.class)
+                .web(WebApplicationType.NONE)
+                // passed as arguments so they win over application.properties
+                .run("--spring.datasource.url=" + URL,
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--logging.level.root=WARN")) {
+            assertEquals(0, jdbc.queryForObject("select count(*) from information_schema.columns" +
+                    " where lower(table_name) = 'tasks' and lower(column_name) = 'status'", Integer.class));
+            assertEquals(List.of(0, 1, 2, 2, 0, 0), jdbc.queryForList(
+                    "select status_code from tasks order by id", Integer.class));
+            assertEquals(6, jdbc.queryForObject("select count(*) from tasks where owner_id = ? and version = 0 and updated_at is not null",
+                    Integer.class, userId));
+            assertEquals("legacy@example.com", jdbc.queryForObject("select email_normalized from users", String.class));
+
+            TMSService service = context.getBean(TMSService.class);
+            UserDTO user = new UserDTO();
+            user.setName("After");
+            user.setEmail("after@example.com");
+            service.registerUser(user);
+            assertEquals(2, jdbc.queryForObject("select count(*) from users", Integer.class));
+
+            TasksDTO task = new TasksDTO();
+            task.setTitle("after the migration");
+            task.setStatus("in-progress");
+            service.addTaskToProjectForUser(projectId, userId, task);
+            assertTrue(jdbc.queryForObject("select max(id) from tasks", Long.class) > lastLegacyTask);
+
+            List<ProjectStatusCountsDTO> counts = service.getStatusCountsForUser(userId);
+            assertEquals(1, counts.size());
+            assertEquals(Map.of("pending", 3L, "in-progress", 2L, "completed", 2L), counts.get(0).getCounts());
+            assertEquals(7, counts.get(0).getTotal());
+        } finally {
+            legacy.destroy();
+        }
+    }
+}
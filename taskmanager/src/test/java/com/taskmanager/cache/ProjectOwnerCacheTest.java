@@ -0,0 +1,88 @@
+package com.taskmanager.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectOwnerCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, Optional<Long>> loader = id -> {
+        loads.incrementAndGet();
+        return id < 100 ? Optional.of(id * 10) : Optional.empty();
+    };
+
+    private ProjectOwnerCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new ProjectOwnerCache(2, Duration.ofSeconds(60), now::get);
+    }
+
+    @Test
+    void hitAfterFirstLoad() {
+        assertEquals(Optional.of(10L), cache.ownerOf(1L, loader));
+        assertEquals(Optional.of(10L), cache.ownerOf(1L, loader));
+
+        assertEquals(1, loads.get());
+        assertEquals(new CacheStats(1, 1, 1, 0), cache.stats());
+    }
+
+    @Test
+    void missingProjectsAreNotCached() {
+        assertTrue(cache.ownerOf(500L, loader).isEmpty());
+        assertTrue(cache.ownerOf(500L, loader).isEmpty());
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void expiresAfterTtl() {
+        cache.ownerOf(1L, loader);
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+        cache.ownerOf(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        cache.ownerOf(1L, loader);
+        cache.ownerOf(2L, loader);
+        cache.ownerOf(1L, loader);
+        cache.ownerOf(3L, loader);
+
+        assertEquals(1, cache.stats().evictions());
+        cache.ownerOf(1L, loader);
+        cache.ownerOf(2L, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        cache.ownerOf(1L, loader);
+        cache.invalidate(1L);
+        cache.ownerOf(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadRacingWithInvalidateIsNotKept() {
+        cache.ownerOf(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of(10L);
+        });
+
+        assertEquals(0, cache.stats().size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.dto.TasksDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopTasksCacheTest {
+
+    private TopTasksCache cache;
+    private List<TasksDTO> db;
+    private AtomicInteger loads;
+    private IntFunction<List<TasksDTO>> loader;
+
+    @BeforeEach
+    void setup() {
+        cache = new TopTasksCache(3, 100);
+        db = new ArrayList<>();
+        loads = new AtomicInteger();
+        loader = n -> {
+            loads.incrementAndGet();
+            return db.stream().sorted(TopTasksCache.ORDER).limit(n).toList();
+        };
+    }
+
+    private TasksDTO task(long id, Integer priority) {
+        TasksDTO t = new TasksDTO();
+        t.setId(id);
+        t.setPriority(priority);
+        return t;
+    }
+
+    private List<Long> ids(List<TasksDTO> tasks) {
+        return tasks.stream().map(TasksDTO::getId).toList();
+    }
+
+    @Test
+    void ordersByPriorityThenId() {
+        db.add(task(1, 5));
+        db.add(task(2, 9));
+        db.add(task(3, null));
+        db.add(task(4, 9));
+
+        assertEquals(List.of(2L, 4L, 1L), ids(cache.top(1L, 3, loader)));
+        assertEquals(List.of(2L), ids(cache.top(1L, 1, loader)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void higherPriorityInsertDisplacesLast() {
+        db.add(task(1, 5));
+        db.add(task(2, 6));
+        db.add(task(3, 7));
+        db.add(task(4, 1));
+        cache.top(1L, 3, loader);
+
+        cache.onTaskSaved(1L, task(5, 8));
+
+        assertEquals(List.of(5L, 3L, 2L), ids(cache.top(1L, 3, loader)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void deletingCachedTaskOfLargeSetReloads() {
+        db.add(task(1, 5));
+        db.add(task(2, 6));
+        db.add(task(3, 7));
+        db.add(task(4, 1));
+        cache.top(1L, 3, loader);
+
+        db.removeIf(t -> t.getId() == 3L);
+        cache.onTaskDeleted(1L, 3L);
+
+        assertEquals(List.of(2L, 1L, 4L), ids(cache.top(1L, 3, loader)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void deletingFromCompleteSetStaysCached() {
+        db.add(task(1, 5));
+        db.add(task(2, 6));
+        cache.top(1L, 3, loader);
+
+        cache.onTaskDeleted(1L, 2L);
+
+        assertEquals(List.of(1L), ids(cache.top(1L, 3, loader)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loweringPriorityBelowCachedSetReloads() {
+        db.add(task(1, 5));
+        db.add(task(2, 6));
+        db.add(task(3, 7));
+        db.add(task(4, 4));
+        cache.top(1L, 3, loader);
+
+        db.get(2).setPriority(1);
+        cache.onTaskSaved(1L, task(3, 1));
+
+        assertEquals(List.of(2L, 1L, 4L), ids(cache.top(1L, 3, loader)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void limitAboveCapacityBypassesCache() {
+        db.add(task(1, 5));
+        cache.top(1L, 10, loader);
+        cache.top(1L, 10, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictUserForcesReload() {
+        db.add(task(1, 5));
+        cache.top(1L, 3, loader);
+
+        cache.evictUser(1L);
+        cache.top(1L, 3, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,25 @@
+package com.taskmanager.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateLoadListenerTest {
+
+    private final HibernateLoadListener listener = new HibernateLoadListener();
+
+    @Test
+    void countsLoadsAndFetchesPerThreadUntilTaken() throws Exception {
+        listener.onPostLoad(null);
+        listener.onPostLoad(null);
+        listener.onInitializeCollection(null);
+        CompletableFuture.runAsync(() -> listener.onPostLoad(null)).get();
+
+        assertEquals(2, listener.takeEntityLoadCount());
+        assertEquals(1, listener.takeCollectionFetchCount());
+        assertEquals(0, listener.takeEntityLoadCount());
+        assertEquals(0, listener.takeCollectionFetchCount());
+    }
+}
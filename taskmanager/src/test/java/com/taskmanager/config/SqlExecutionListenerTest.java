@@ -0,0 +1,53 @@
+package com.taskmanager.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlExecutionListenerTest {
+
+    private final SqlExecutionListener listener = new SqlExecutionListener(Duration.ofMillis(100), 1.0);
+
+    @Test
+    void countsStatementsPerThreadUntilTaken() {
+        listener.afterQuery(execution(5), queries("select 1"));
+        listener.afterQuery(execution(5), queries("select 2"));
+
+        assertEquals(2, listener.takeStatementCount());
+        assertEquals(0, listener.takeStatementCount());
+    }
+
+    @Test
+    void countsOnlyStatementsAtOrOverThresholdAsSlow() {
+        listener.afterQuery(execution(99), queries("select 1"));
+        listener.afterQuery(execution(100), queries("select 2"));
+        listener.afterQuery(execution(2_000), queries("insert 1", "insert 2"));
+
+        assertEquals(2, listener.slowQueryCount());
+    }
+
+    @Test
+    void samplingDoesNotHideSlowQueriesFromTheCounter() {
+        SqlExecutionListener sampled = new SqlExecutionListener(Duration.ofMillis(100), 0.0);
+
+        sampled.afterQuery(execution(500), queries("select 1"));
+
+        assertEquals(1, sampled.slowQueryCount());
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMillis);
+        return info;
+    }
+
+    private static List<QueryInfo> queries(String... sql) {
+        return Arrays.stream(sql).map(QueryInfo::new).toList();
+    }
+}
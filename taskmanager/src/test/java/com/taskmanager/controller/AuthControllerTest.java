@@ -1,5 +1,6 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.dto.BulkUserResponseDTO;
 import com.taskmanager.dto.ResponseDTO;
 import com.taskmanager.dto.UserDTO;
 import com.taskmanager.exception.TMSException;
@@ -11,6 +12,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -59,6 +62,29 @@ class AuthControllerTest {
         assertEquals("Invalid user data", ex.getMessage());
     }
 
+    @Test
+    void registerBulk_success() {
+        UserDTO dto = new UserDTO();
+        dto.setName("Uday");
+        dto.setEmail("uday@test.com");
+        List<UserDTO> users = List.of(dto);
+
+        BulkUserResponseDTO responseDTO = new BulkUserResponseDTO();
+        responseDTO.setMessage("Users registered");
+        responseDTO.setCreated(1);
+        responseDTO.setIds(List.of(1L));
+
+        when(tmsService.registerUsers(users)).thenReturn(responseDTO);
+
+        ResponseEntity<BulkUserResponseDTO> response =
+                authController.registerBulk(users);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody().getCreated());
+
+        verify(tmsService).registerUsers(users);
+    }
+
     @Test
     void login_success() {
         UserDTO credentials = new UserDTO();
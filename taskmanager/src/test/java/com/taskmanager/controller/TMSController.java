@@ -1,17 +1,34 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.cache.CacheStats;
+import com.taskmanager.dto.BulkTaskPatchDTO;
+import com.taskmanager.dto.BulkTaskResponseDTO;
+import com.taskmanager.dto.BulkUpdateResponseDTO;
+import com.taskmanager.dto.DashboardDTO;
 import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.ProjectStatusCountsDTO;
 import com.taskmanager.dto.ResponseDTO;
+import com.taskmanager.dto.TaskChangesDTO;
+import com.taskmanager.dto.TaskPageDTO;
+import com.taskmanager.dto.TaskQueryDTO;
+import com.taskmanager.dto.TaskSearchPageDTO;
 import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.events.ChangeEventBus;
+import com.taskmanager.exception.TaskVersionConflictException;
 import com.taskmanager.service.TMSService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +39,9 @@ class TMSControllerTest {
     @Mock
     private TMSService tmsService;
 
+    @Mock
+    private ChangeEventBus changeEvents;
+
     @InjectMocks
     private TMSController controller;
 
@@ -43,6 +63,41 @@ class TMSControllerTest {
         verify(tmsService).getProjectsByUserId(1L);
     }
 
+    @Test
+    void getDashboard_success() {
+        DashboardDTO dashboard = new DashboardDTO();
+        dashboard.setTaskCount(7);
+
+        when(tmsService.getDashboardForUser(1L, 3))
+                .thenReturn(dashboard);
+
+        ResponseEntity<DashboardDTO> response =
+                controller.getDashboard(1L, 3);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(7, response.getBody().getTaskCount());
+
+        verify(tmsService).getDashboardForUser(1L, 3);
+    }
+
+    @Test
+    void getStatusCounts_success() {
+        ProjectStatusCountsDTO counts = new ProjectStatusCountsDTO();
+        counts.setProjectId(10L);
+        counts.setTotal(4);
+
+        when(tmsService.getStatusCountsForUser(1L))
+                .thenReturn(List.of(counts));
+
+        ResponseEntity<List<ProjectStatusCountsDTO>> response =
+                controller.getStatusCounts(1L);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(4, response.getBody().get(0).getTotal());
+
+        verify(tmsService).getStatusCountsForUser(1L);
+    }
+
     @Test
     void createProject_success() {
         ProjectDTO dto = new ProjectDTO();
@@ -96,19 +151,46 @@ class TMSControllerTest {
         assertEquals("Task added", response.getBody().getMessage());
     }
 
+    @Test
+    void addTasksBulk_success() {
+        TasksDTO task = new TasksDTO();
+        task.setTitle("Task 1");
+
+        BulkTaskResponseDTO responseDTO = new BulkTaskResponseDTO();
+        responseDTO.setMessage("Tasks added");
+        responseDTO.setCreated(1);
+        responseDTO.setIds(List.of(100L));
+
+        when(tmsService.addTasksToProjectForUser(10L, 1L, List.of(task)))
+                .thenReturn(responseDTO);
+
+        ResponseEntity<BulkTaskResponseDTO> response =
+                controller.addTasks(10L, 1L, List.of(task));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(100L), response.getBody().getIds());
+    }
+
     @Test
     void getProjectTasks_success() {
         TasksDTO task = new TasksDTO();
         task.setTitle("Task");
 
-        when(tmsService.fetchTasksForProjectAndUser(10L, 1L))
-                .thenReturn(List.of(task));
+        TaskPageDTO page = new TaskPageDTO();
+        page.setTasks(List.of(task));
 
-        ResponseEntity<List<TasksDTO>> response =
-                controller.getProjectTasks(10L, 1L);
+        TaskQueryDTO query = new TaskQueryDTO();
+        query.setLimit(20);
+
+        when(tmsService.fetchTaskPageForProjectAndUser(10L, 1L, query))
+                .thenReturn(page);
+
+        ResponseEntity<TaskPageDTO> response =
+                controller.getProjectTasks(10L, 1L, query);
 
         assertEquals(200, response.getStatusCode().value());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, response.getBody().getTasks().size());
+        assertFalse(response.getBody().isHasMore());
     }
 
     @Test
@@ -120,12 +202,53 @@ class TMSControllerTest {
                 .thenReturn(task);
 
         ResponseEntity<TasksDTO> response =
-                controller.getTask(100L);
+                controller.getTask(100L, null);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(100L, response.getBody().getId());
     }
 
+    @Test
+    void getTask_etagMatchReturnsNotModified() {
+        TasksDTO task = new TasksDTO();
+        task.setId(100L);
+        task.setVersion(1L);
+
+        when(tmsService.fetchTaskById(100L))
+                .thenReturn(task);
+
+        ResponseEntity<TasksDTO> first =
+                controller.getTask(100L, null);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        ResponseEntity<TasksDTO> second =
+                controller.getTask(100L, "\"other\", " + etag);
+
+        assertEquals(304, second.getStatusCode().value());
+        assertNull(second.getBody());
+        assertEquals(etag, second.getHeaders().getETag());
+    }
+
+    @Test
+    void getTask_etagChangesWithVersion() {
+        TasksDTO task = new TasksDTO();
+        task.setId(100L);
+        task.setVersion(1L);
+
+        when(tmsService.fetchTaskById(100L))
+                .thenReturn(task);
+
+        String etag = controller.getTask(100L, null).getHeaders().getETag();
+        task.setVersion(2L);
+
+        ResponseEntity<TasksDTO> response =
+                controller.getTask(100L, etag);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertNotEquals(etag, response.getHeaders().getETag());
+    }
+
     @Test
     void updateTask_success() {
         TasksDTO task = new TasksDTO();
@@ -138,7 +261,7 @@ class TMSControllerTest {
                 .thenReturn(responseDTO);
 
         ResponseEntity<ResponseDTO> response =
-                controller.updateTask(100L, task);
+                controller.updateTask(100L, null, task);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals("Task updated successfully",
@@ -157,13 +280,94 @@ class TMSControllerTest {
                 .thenReturn(responseDTO);
 
         ResponseEntity<ResponseDTO> response =
-                controller.partialUpdateTask(100L, task);
+                controller.partialUpdateTask(100L, null, task);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals("Task partially updated",
                 response.getBody().getMessage());
     }
 
+    @Test
+    void updateTask_ifMatchUpdatesThatVersionOnly() {
+        TasksDTO task = new TasksDTO();
+        task.setPriority(7);
+
+        ResponseDTO responseDTO = new ResponseDTO();
+        responseDTO.setMessage("Task updated successfully");
+
+        when(tmsService.updateTask(task, 100L, 3L))
+                .thenReturn(responseDTO);
+
+        ResponseEntity<ResponseDTO> response =
+                controller.updateTask(100L, "\"100-3\"", task);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"100-4\"", response.getHeaders().getETag());
+        verify(tmsService, never()).updateTask(task, 100L);
+    }
+
+    @Test
+    void partialUpdateTask_staleIfMatchReturnsPreconditionFailed() {
+        TasksDTO task = new TasksDTO();
+        task.setStatus("DONE");
+
+        when(tmsService.partialUpdateTask(100L, task, 3L))
+                .thenThrow(new TaskVersionConflictException("Task 100 has changed since version 3"));
+
+        ResponseEntity<ResponseDTO> response =
+                controller.partialUpdateTask(100L, "\"100-3\"", task);
+
+        assertEquals(412, response.getStatusCode().value());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void partialUpdateTask_ifMatchForAnotherTaskReturnsPreconditionFailed() {
+        TasksDTO task = new TasksDTO();
+        task.setStatus("DONE");
+
+        ResponseEntity<ResponseDTO> response =
+                controller.partialUpdateTask(100L, "W/\"100-3\", \"101-3\"", task);
+
+        assertEquals(412, response.getStatusCode().value());
+        verifyNoInteractions(tmsService);
+    }
+
+    @Test
+    void updateTask_ifMatchStarIsUnconditional() {
+        TasksDTO task = new TasksDTO();
+        task.setPriority(7);
+
+        when(tmsService.updateTask(task, 100L))
+                .thenReturn(new ResponseDTO());
+
+        ResponseEntity<ResponseDTO> response =
+                controller.updateTask(100L, "*", task);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void bulkPatchTasks_success() {
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setIds(List.of(100L, 101L));
+        patch.setStatus("DONE");
+
+        BulkUpdateResponseDTO responseDTO = new BulkUpdateResponseDTO();
+        responseDTO.setMessage("Tasks updated");
+        responseDTO.setUpdated(2);
+
+        when(tmsService.bulkPatchTasks(1L, patch))
+                .thenReturn(responseDTO);
+
+        ResponseEntity<BulkUpdateResponseDTO> response =
+                controller.bulkPatchTasks(1L, patch);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(2, response.getBody().getUpdated());
+    }
+
     @Test
     void deleteTask_success() {
         ResponseDTO responseDTO = new ResponseDTO();
@@ -179,18 +383,88 @@ class TMSControllerTest {
         assertEquals("Task deleted", response.getBody().getMessage());
     }
 
+    @Test
+    void exportTasks_streamsFromService() throws Exception {
+        ResponseEntity<StreamingResponseBody> response =
+                controller.exportTasks(1L);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(tmsService).exportTasksForUser(1L, out);
+    }
+
     @Test
     void getTopTasks_success() {
         TasksDTO task = new TasksDTO();
         task.setPriority(10);
 
-        when(tmsService.getTopFivePriorityTasksForUser(1L))
+        when(tmsService.getTopPriorityTasksForUser(1L, 5))
                 .thenReturn(List.of(task));
 
         ResponseEntity<List<TasksDTO>> response =
-                controller.getTopTasks(1L);
+                controller.getTopTasks(1L, 5);
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(1, response.getBody().size());
     }
+
+    @Test
+    void getCacheStats_success() {
+        when(tmsService.getCacheStats())
+                .thenReturn(Map.of("projectOwners", new CacheStats(1, 3, 1, 0)));
+
+        ResponseEntity<Map<String, CacheStats>> response =
+                controller.getCacheStats();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(0.75, response.getBody().get("projectOwners").hitRatio());
+    }
+
+    @Test
+    void searchTasks_success() {
+        TaskSearchPageDTO page = new TaskSearchPageDTO();
+        page.getTasks().add(new TasksDTO());
+        when(tmsService.searchTasksForUser(1L, "report", null, 10)).thenReturn(page);
+
+        ResponseEntity<TaskSearchPageDTO> response =
+                controller.searchTasks(1L, "report", null, 10);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody().getTasks().size());
+    }
+
+    @Test
+    void getTaskChanges_success() {
+        TaskChangesDTO changes = new TaskChangesDTO();
+        changes.setWatermark("w2");
+        when(tmsService.getTaskChangesForUser(1L, "w1", null)).thenReturn(changes);
+
+        ResponseEntity<TaskChangesDTO> response = controller.getTaskChanges(1L, "w1", null);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("w2", response.getBody().getWatermark());
+    }
+
+    @Test
+    void stream_reconnectAsksForResync() {
+        SseEmitter emitter = new SseEmitter();
+        when(changeEvents.subscribe(1L, true)).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = controller.stream(1L, "42");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(emitter, response.getBody());
+    }
+
+    @Test
+    void stream_atCapacityIsUnavailable() {
+        when(changeEvents.subscribe(1L, false)).thenReturn(null);
+
+        ResponseEntity<SseEmitter> response = controller.stream(1L, null);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
 }
@@ -0,0 +1,94 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.dto.UserDTO;
+import com.taskmanager.service.TMSService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The export through the real server: the body is written on an async dispatch, so it is bounded
+ * by the MVC async timeout rather than by the request thread.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:task-export;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+class TaskExportTest {
+
+    private static final int TASKS = 5_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TMSService service;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    void asyncTimeoutOutlastsTheContainerDefault() {
+        Long timeout = (Long) ReflectionTestUtils.getField(handlerAdapter, "asyncRequestTimeout");
+        assertTrue(timeout != null && timeout > 30_000, "async request timeout " + timeout + " ms");
+    }
+
+    @Test
+    void fullExportCompletes() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setName("exporter");
+        user.setEmail("exporter@example.com");
+        service.registerUser(user);
+        Long userId = service.loginUser(user).getId();
+        ProjectDTO project = new ProjectDTO();
+        project.setTitle("Export project");
+        project.setStartDate(LocalDate.now());
+        project.setUserId(userId);
+        service.createProjectForExistingUser(project);
+        Long projectId = service.getProjectsByUserId(userId).get(0).getId();
+        List<TasksDTO> batch = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            TasksDTO task = new TasksDTO();
+            task.setTitle("export " + i);
+            task.setStatus("todo");
+            task.setPriority(1 + i % 10);
+            batch.add(task);
+        }
+        service.addTasksToProjectForUser(projectId, userId, batch);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/export?userId=" + userId)).build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        long lines = 0;
+        String last = null;
+        try (BufferedReader body = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            for (String line = body.readLine(); line != null; line = body.readLine()) {
+                lines++;
+                last = line;
+            }
+        }
+        assertEquals(TASKS, lines);
+        assertTrue(last.contains("\"title\":\"export " + (TASKS - 1) + "\""), last);
+    }
+}
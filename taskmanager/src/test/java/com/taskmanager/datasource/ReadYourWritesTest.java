@@ -0,0 +1,100 @@
+package com.taskmanager.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private ReadYourWrites readYourWrites;
+
+    @BeforeEach
+    void setup() {
+        readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), 2, now::get);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void cleanup() {
+        completeTransaction();
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void recentWriterReadsFromPrimary() {
+        readYourWrites.recordWrite(1L);
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+
+        readYourWrites.readingFor(1L);
+
+        assertTrue(readYourWrites.isPrimaryRequired());
+    }
+
+    @Test
+    void otherUsersAndOldWritesUseReplicas() {
+        readYourWrites.recordWrite(1L);
+        readYourWrites.readingFor(2L);
+        assertFalse(readYourWrites.isPrimaryRequired());
+
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        readYourWrites.readingFor(1L);
+        assertFalse(readYourWrites.isPrimaryRequired());
+    }
+
+    @Test
+    void choiceEndsWithTheTransaction() {
+        readYourWrites.readFromPrimary();
+        assertTrue(readYourWrites.isPrimaryRequired());
+
+        completeTransaction();
+
+        assertFalse(readYourWrites.isPrimaryRequired());
+    }
+
+    @Test
+    void outsideTransactionNothingIsBound() {
+        TransactionSynchronizationManager.clearSynchronization();
+        readYourWrites.readFromPrimary();
+
+        assertFalse(readYourWrites.isPrimaryRequired());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @Test
+    void forgetsLeastRecentWritersBeyondMaxUsers() {
+        readYourWrites.recordWrite(1L);
+        readYourWrites.recordWrite(2L);
+        readYourWrites.recordWrite(3L);
+
+        readYourWrites.readingFor(1L);
+        assertFalse(readYourWrites.isPrimaryRequired());
+        readYourWrites.readingFor(3L);
+        assertTrue(readYourWrites.isPrimaryRequired());
+    }
+
+    @Test
+    void zeroWindowDisablesStickiness() {
+        readYourWrites = new ReadYourWrites(Duration.ZERO, 2, now::get);
+        readYourWrites.recordWrite(1L);
+        readYourWrites.readingFor(1L);
+
+        assertFalse(readYourWrites.isPrimaryRequired());
+    }
+
+    private static void completeTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
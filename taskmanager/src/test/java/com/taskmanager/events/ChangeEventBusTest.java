@@ -0,0 +1,197 @@
+package com.taskmanager.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeEventBusTest {
+
+    private static final String PING = "ping";
+
+    private ChangeEventBus bus;
+
+    @BeforeEach
+    void setup() {
+        bus = new ChangeEventBus(JsonMapper.builder().build(), 4, 3, Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void shutdown() {
+        bus.shutdown();
+    }
+
+    // records event names, and the payloads of real events, in the order they were written
+    private static class RecordingSink implements EventSink {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        volatile boolean closed;
+
+        @Override
+        public void send(long id, String name, String json) throws IOException {
+            received.add(name + " " + json);
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            received.add(PING);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        String next() throws InterruptedException {
+            String value = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(value, "nothing was sent");
+            return value;
+        }
+    }
+
+    // a client that stops reading until released
+    private static class StalledSink extends RecordingSink {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void heartbeat() throws IOException {
+            await();
+            super.heartbeat();
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void eventsReachOnlyTheOwnersSubscribers() throws Exception {
+        RecordingSink owner = new RecordingSink();
+        RecordingSink other = new RecordingSink();
+        bus.register(1L, owner, false);
+        bus.register(2L, other, false);
+        assertEquals(PING, owner.next());
+        assertEquals(PING, other.next());
+
+        bus.publish(1L, ChangeEvent.taskUpdated(10L, 100L, 4L));
+
+        String event = owner.next();
+        assertTrue(event.startsWith(ChangeEvent.TASK_UPDATED + " "));
+        assertTrue(event.contains("\"taskId\":100"));
+        assertTrue(event.contains("\"version\":4"));
+        assertNull(other.received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void eventsKeepTheirOrderPerSubscriber() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        bus.register(1L, sink, false);
+        assertEquals(PING, sink.next());
+
+        for (long id = 1; id <= 3; id++) bus.publish(1L, ChangeEvent.taskDeleted(10L, id));
+
+        assertTrue(sink.next().contains("\"taskId\":1"));
+        assertTrue(sink.next().contains("\"taskId\":2"));
+        assertTrue(sink.next().contains("\"taskId\":3"));
+    }
+
+    @Test
+    void slowSubscriberIsToldToResyncWithoutBlockingPublishers() throws Exception {
+        StalledSink slow = new StalledSink();
+        RecordingSink fast = new RecordingSink();
+        bus.register(1L, slow, false);
+        bus.register(1L, fast, false);
+        assertEquals(PING, fast.next());
+
+        // far past the buffer of 4: the slow sink overflows while the fast one keeps getting every event
+        for (long id = 1; id <= 50; id++) {
+            bus.publish(1L, ChangeEvent.taskDeleted(10L, id));
+            assertTrue(fast.next().contains("\"taskId\":" + id + ","));
+        }
+        assertTrue(bus.overflowCount() > 0);
+
+        slow.release.countDown();
+        assertEquals(PING, slow.next());
+        assertTrue(slow.next().startsWith(ChangeEventBus.RESYNC + " "));
+    }
+
+    @Test
+    void stalledWritesDoNotHoldUpOtherSubscribersAndAreEvicted() throws Exception {
+        bus.shutdown();
+        bus = new ChangeEventBus(JsonMapper.builder().build(), 4, 10, Duration.ofHours(1), Duration.ofMillis(200), Duration.ofMinutes(30));
+        // more stalled writes than a small dispatcher pool would have threads
+        StalledSink[] stalled = new StalledSink[6];
+        for (int i = 0; i < stalled.length; i++) {
+            stalled[i] = new StalledSink();
+            bus.register(1L, stalled[i], false);
+        }
+        RecordingSink fast = new RecordingSink();
+        bus.register(1L, fast, false);
+        assertEquals(PING, fast.next());
+
+        for (long id = 1; id <= 10; id++) {
+            bus.publish(1L, ChangeEvent.taskDeleted(10L, id));
+            assertTrue(fast.next().contains("\"taskId\":" + id + ","));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bus.subscriberCount() > 1 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(1, bus.subscriberCount());
+        assertEquals(stalled.length, bus.evictionCount());
+        for (StalledSink sink : stalled) {
+            while (!sink.closed && System.nanoTime() < deadline) Thread.sleep(10);
+            assertTrue(sink.closed);
+        }
+        bus.publish(1L, ChangeEvent.taskDeleted(10L, 11L));
+        assertTrue(fast.next().contains("\"taskId\":11,"));
+    }
+
+    @Test
+    void reconnectingSubscriberStartsWithResync() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        bus.register(1L, sink, true);
+
+        assertTrue(sink.next().startsWith(ChangeEventBus.RESYNC + " "));
+        assertEquals(PING, sink.next());
+    }
+
+    @Test
+    void failingSubscriberIsRemoved() throws Exception {
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void heartbeat() throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        bus.register(1L, sink, false);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bus.subscriberCount() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+
+        assertEquals(0, bus.subscriberCount());
+        assertTrue(sink.closed);
+        bus.publish(1L, ChangeEvent.projectCreated(10L));
+        assertEquals(0, bus.publishedCount());
+    }
+
+    @Test
+    void subscribersBeyondTheCapAreRejected() {
+        for (int i = 0; i < 3; i++) assertNotNull(bus.register(1L, new RecordingSink(), false));
+
+        assertNull(bus.register(1L, new RecordingSink(), false));
+        assertEquals(3, bus.subscriberCount());
+        assertEquals(1, bus.rejectedCount());
+    }
+}
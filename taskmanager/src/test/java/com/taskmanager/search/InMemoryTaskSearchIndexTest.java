@@ -0,0 +1,73 @@
+package com.taskmanager.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTaskSearchIndexTest {
+
+    private InMemoryTaskSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new InMemoryTaskSearchIndex();
+        index.onTaskSaved(1L, 10L, 100L, "Quarterly report", "Draft the report for finance");
+        index.onTaskSaved(2L, 10L, 100L, "Report bug", "Login page crashes");
+        index.onTaskSaved(3L, 11L, 100L, "Plan offsite", null);
+        index.onTaskSaved(4L, 20L, 200L, "Quarterly report", "Someone else's task");
+    }
+
+    @Test
+    void matchesTitleAndDescriptionCaseInsensitively() {
+        assertEquals(List.of(2L), index.search(100L, "LOGIN", 0, 10));
+        assertEquals(List.of(3L), index.search(100L, "offsite", 0, 10));
+    }
+
+    @Test
+    void onlySearchesTheOwnersTasks() {
+        assertEquals(List.of(4L), index.search(200L, "quarterly", 0, 10));
+        assertEquals(List.of(), index.search(300L, "quarterly", 0, 10));
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        assertEquals(List.of(1L), index.search(100L, "report finance", 0, 10));
+        assertEquals(List.of(), index.search(100L, "report offsite", 0, 10));
+    }
+
+    @Test
+    void ranksByTermFrequencyThenId() {
+        // task 1 mentions "report" twice
+        assertEquals(List.of(1L, 2L), index.search(100L, "report", 0, 10));
+        assertEquals(List.of(2L), index.search(100L, "report", 1, 10));
+        assertEquals(List.of(1L), index.search(100L, "report", 0, 1));
+    }
+
+    @Test
+    void reindexingReplacesOldTerms() {
+        index.onTaskSaved(2L, 10L, 100L, "Fix signup", null);
+
+        assertEquals(List.of(1L), index.search(100L, "report", 0, 10));
+        assertEquals(List.of(2L), index.search(100L, "signup", 0, 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void deletesTasksAndProjects() {
+        index.onTaskDeleted(1L);
+        assertEquals(List.of(2L), index.search(100L, "report", 0, 10));
+
+        index.onProjectDeleted(10L);
+        assertEquals(List.of(), index.search(100L, "report", 0, 10));
+        assertEquals(List.of(3L), index.search(100L, "plan", 0, 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void blankQueryMatchesNothing() {
+        assertEquals(List.of(), index.search(100L, " -- ", 0, 10));
+    }
+}
@@ -0,0 +1,64 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectPurgeWorkerTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProjectPurgeWorker worker;
+
+    @BeforeEach
+    void setup() {
+        worker = new ProjectPurgeWorker(projectRepository, taskRepository, transactionManager, 2);
+    }
+
+    @Test
+    void purgesTasksInChunksThenProject() {
+        when(projectRepository.findDeletedIds()).thenReturn(List.of(10L));
+        when(taskRepository.findIdsByProjectId(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(taskRepository.deleteByIdIn(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        worker.purgeDeletedProjects();
+
+        verify(taskRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(taskRepository).deleteByIdIn(List.of(3L));
+        verify(projectRepository).deleteEmptyById(10L);
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    void failureOfOneProjectDoesNotStopOthers() {
+        when(projectRepository.findDeletedIds()).thenReturn(List.of(10L, 11L));
+        when(taskRepository.findIdsByProjectId(eq(10L), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("boom"));
+        when(taskRepository.findIdsByProjectId(eq(11L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        worker.purgeDeletedProjects();
+
+        verify(projectRepository, never()).deleteEmptyById(10L);
+        verify(projectRepository).deleteEmptyById(11L);
+    }
+}
@@ -0,0 +1,171 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.TaskQueryDTO;
+import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.dto.UserDTO;
+import com.taskmanager.service.TMSService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two H2 databases stand in for a primary and its replica. Replication is a snapshot copied on
+ * demand, so anything changed on one side afterwards shows which database answered a read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tms.datasource.replicas.urls=" + ReadReplicaRoutingTest.REPLICA,
+        "tms.datasource.read-your-writes=1s",
+        "tms.sync.commit-lag=0s",
+        "tms.projects.purge-interval-ms=3600000"})
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY = "jdbc:h2:mem:rw-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA = "jdbc:h2:mem:rw-replica;DB_CLOSE_DELAY=-1";
+    private static final long WINDOW_MILLIS = 1000;
+    private static final AtomicInteger users = new AtomicInteger();
+
+    @Autowired
+    private TMSService service;
+
+    private Long userId;
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void seed() throws Exception {
+        userId = register();
+        ProjectDTO project = new ProjectDTO();
+        project.setTitle("Replicated");
+        project.setStartDate(LocalDate.now());
+        project.setUserId(userId);
+        service.createProjectForExistingUser(project);
+        projectId = service.getProjectsByUserId(userId).get(0).getId();
+        TasksDTO task = new TasksDTO();
+        task.setTitle("primary");
+        task.setPriority(5);
+        service.addTaskToProjectForUser(projectId, userId, task);
+        taskId = titles().get(0).getId();
+
+        replicate();
+        execute(REPLICA, "UPDATE tasks SET title = 'replica' WHERE id = " + taskId);
+    }
+
+    @Test
+    void readsGoToTheReplicaOnceTheWriteWindowHasPassed() throws Exception {
+        assertEquals("primary", titles().get(0).getTitle());
+
+        Thread.sleep(WINDOW_MILLIS + 100);
+
+        assertEquals("replica", titles().get(0).getTitle());
+        assertEquals("replica", service.fetchTasksForProjectAndUser(projectId, userId).get(0).getTitle());
+    }
+
+    @Test
+    void writesGoToThePrimaryAndTheWriterReadsThem() throws Exception {
+        Thread.sleep(WINDOW_MILLIS + 100);
+        TasksDTO patch = new TasksDTO();
+        patch.setTitle("edited");
+        service.partialUpdateTask(taskId, patch);
+
+        assertEquals("edited", titles().get(0).getTitle());
+        assertEquals("edited", query(PRIMARY, "SELECT title FROM tasks WHERE id = " + taskId));
+        assertEquals("replica", query(REPLICA, "SELECT title FROM tasks WHERE id = " + taskId));
+    }
+
+    @Test
+    void cachedReadsAreLoadedFromThePrimary() throws Exception {
+        Thread.sleep(WINDOW_MILLIS + 100);
+
+        assertEquals("primary", service.fetchTaskById(taskId).getTitle());
+        assertEquals("primary", service.getTopPriorityTasksForUser(userId, 5).get(0).getTitle());
+
+        // registered after the snapshot, so only the primary knows this user
+        UserDTO credentials = credentials(users.incrementAndGet());
+        service.registerUser(credentials);
+        Long newcomer = service.loginUser(credentials).getId();
+        assertTrue(service.getProjectsByUserId(newcomer).isEmpty());
+    }
+
+    @Test
+    void deltaSyncReadsThePrimary() throws Exception {
+        Thread.sleep(WINDOW_MILLIS + 100);
+
+        List<String> synced = new ArrayList<>();
+        for (TasksDTO t : service.getTaskChangesForUser(userId, null, null).getTasks()) synced.add(t.getTitle());
+
+        assertEquals(List.of("primary"), synced);
+    }
+
+    private List<TasksDTO> titles() {
+        return service.fetchTaskPageForProjectAndUser(projectId, userId, new TaskQueryDTO()).getTasks();
+    }
+
+    private Long register() {
+        UserDTO credentials = credentials(users.incrementAndGet());
+        service.registerUser(credentials);
+        return service.loginUser(credentials).getId();
+    }
+
+    private static UserDTO credentials(int n) {
+        UserDTO user = new UserDTO();
+        user.setName("routed" + n);
+        user.setEmail("routed" + n + "@example.com");
+        return user;
+    }
+
+    // the replica becomes a copy of the primary as it is now
+    private static void replicate() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY, "sa", "");
+             Statement st = primary.createStatement();
+             ResultSet rs = st.executeQuery("SCRIPT")) {
+            while (rs.next()) script.add(rs.getString(1));
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "");
+             Statement st = replica.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                // the user running the script exists on both sides already, and check constraints
+                // come out of SCRIPT in a form H2 cannot evaluate again; the replica only serves reads
+                if (sql.startsWith("CREATE USER") || sql.contains(" CHECK")) continue;
+                st.execute(sql);
+            }
+        }
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static String query(String url, String sql) throws SQLException {
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.cache.CacheStats;
+import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.dto.UserDTO;
+import com.taskmanager.entity.Project;
+import com.taskmanager.entity.User;
+import com.taskmanager.exception.TMSException;
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.service.TMSService;
+import com.taskmanager.support.QueryCounter;
+import com.taskmanager.support.QueryCounter.Counts;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes through {@link TMSService} against a warm second-level cache: every read after a
+ * committed write has to see that write, whether it is answered from the entity regions,
+ * the query cache or the database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tms.projects.purge-async-threshold=2",
+        "tms.projects.purge-interval-ms=3600000"})
+class SecondLevelCacheTest {
+
+    private static final AtomicInteger users = new AtomicInteger();
+
+    @Autowired
+    private TMSService service;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() throws Exception {
+        QueryCounter.install(dataSource);
+        UserDTO user = new UserDTO();
+        int n = users.incrementAndGet();
+        user.setName("cached" + n);
+        user.setEmail("cached" + n + "@example.com");
+        service.registerUser(user);
+        userId = service.loginUser(user).getId();
+    }
+
+    @Test
+    void cachedProjectListSeesNewProjects() throws Exception {
+        Long first = createProject();
+        assertEquals(List.of(first), ownedProjectIds());
+        assertEquals(Counts.of(0, 0, 0, 0), QueryCounter.count(this::ownedProjectIds));
+
+        Long second = createProject();
+
+        assertEquals(List.of(first, second), ownedProjectIds());
+        assertEquals(List.of(first, second), service.getProjectsByUserId(userId).stream().map(ProjectDTO::getId).toList());
+    }
+
+    @Test
+    void deletedProjectIsNotServedFromTheCache() throws Exception {
+        Long projectId = createProject();
+        Long taskId = addTasks(projectId, 1).get(0);
+        // loads the task's project, and its owner id with it, into the projects region
+        service.updateTask(task("warm"), taskId);
+        ownedProjectIds();
+        assertTrue(entityManagerFactory.getCache().contains(Project.class, projectId));
+
+        service.deleteProjectAndAssociatedTasksForUser(projectId, userId);
+
+        // the region keeps only a lock for the removed entry, so the lookup goes to the database
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> assertTrue(projectRepository.findById(projectId).isEmpty())));
+        assertEquals(List.of(), ownedProjectIds());
+        assertEquals(List.of(), service.getProjectsByUserId(userId));
+        assertThrows(TMSException.class, () -> service.fetchTasksForProjectAndUser(projectId, userId));
+    }
+
+    @Test
+    void projectMarkedForPurgeIsNotServedFromTheCache() {
+        Long projectId = createProject();
+        Long taskId = addTasks(projectId, 3).get(0);
+        service.updateTask(task("warm"), taskId);
+        service.getProjectsByUserId(userId);
+
+        // above tms.projects.purge-async-threshold, so the project is only flagged
+        service.deleteProjectAndAssociatedTasksForUser(projectId, userId);
+
+        assertTrue(projectRepository.findById(projectId).orElseThrow().isDeleted());
+        assertEquals(List.of(), service.getProjectsByUserId(userId));
+        assertThrows(TMSException.class, () -> service.addTaskToProjectForUser(projectId, userId, task("late")));
+    }
+
+    @Test
+    void cachedProjectKeepsItsOwner() {
+        Long projectId = createProject();
+        Long taskId = addTasks(projectId, 1).get(0);
+        service.updateTask(task("warm"), taskId);
+
+        Project cached = projectRepository.findById(projectId).orElseThrow();
+
+        assertEquals(userId, cached.getUser().getId());
+        assertEquals(userId, service.fetchTaskById(taskId).getProjectDTO().getUserId());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, userId));
+    }
+
+    @Test
+    void conditionalTaskWritesKeepTheEntityRegions() {
+        Long projectId = createProject();
+        Long taskId = addTasks(projectId, 1).get(0);
+        service.updateTask(task("warm"), taskId);
+        long version = service.fetchTaskById(taskId).getVersion();
+
+        TasksDTO done = task("done");
+        done.setStatus("done");
+        service.updateTask(done, taskId, version);
+
+        // the counter move is native SQL; without its declared table space Hibernate would evict every region
+        assertTrue(entityManagerFactory.getCache().contains(Project.class, projectId));
+        assertTrue(entityManagerFactory.getCache().contains(User.class, userId));
+    }
+
+    @Test
+    void hitRatiosArePublishedPerRegion() throws Exception {
+        Long projectId = createProject();
+        Long taskId = addTasks(projectId, 1).get(0);
+        service.updateTask(task("first"), taskId);
+        service.updateTask(task("second"), taskId);
+
+        CacheStats projects = service.getCacheStats().get("l2.projects");
+        assertTrue(projects.hits() > 0);
+        assertTrue(projects.hitRatio() > 0);
+        assertTrue(service.getCacheStats().containsKey("l2.users"));
+        assertTrue(service.getCacheStats().containsKey("l2.projectsByUser"));
+        assertTrue(objectMapper.writeValueAsString(projects).contains("\"hitRatio\""));
+    }
+
+    private Long createProject() {
+        ProjectDTO project = new ProjectDTO();
+        project.setTitle("Cached project");
+        project.setStartDate(LocalDate.now());
+        project.setUserId(userId);
+        service.createProjectForExistingUser(project);
+        List<ProjectDTO> projects = service.getProjectsByUserId(userId);
+        return projects.get(projects.size() - 1).getId();
+    }
+
+    private List<Long> addTasks(Long projectId, int count) {
+        List<TasksDTO> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) batch.add(task("task " + i));
+        return service.addTasksToProjectForUser(projectId, userId, batch).getIds();
+    }
+
+    private List<Long> ownedProjectIds() {
+        return projectRepository.findByUser_Id(userId).stream().map(Project::getId).toList();
+    }
+
+    private static TasksDTO task(String title) {
+        TasksDTO task = new TasksDTO();
+        task.setTitle(title);
+        task.setStatus("TODO");
+        task.setPriority(5);
+        return task;
+    }
+}
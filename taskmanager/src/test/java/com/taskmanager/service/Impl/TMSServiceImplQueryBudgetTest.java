@@ -0,0 +1,472 @@
+package com.taskmanager.service.Impl;
+
+import com.taskmanager.cache.ProjectOwnerCache;
+import com.taskmanager.config.HibernateLoadListener;
+import com.taskmanager.dto.BulkTaskPatchDTO;
+import com.taskmanager.dto.DashboardDTO;
+import com.taskmanager.dto.DashboardProjectDTO;
+import com.taskmanager.dto.ProjectDTO;
+import com.taskmanager.dto.ProjectStatusCountsDTO;
+import com.taskmanager.dto.TaskChangesDTO;
+import com.taskmanager.dto.TaskPageDTO;
+import com.taskmanager.dto.TaskQueryDTO;
+import com.taskmanager.dto.TasksDTO;
+import com.taskmanager.dto.TombstoneDTO;
+import com.taskmanager.dto.UserDTO;
+import com.taskmanager.entity.Project;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.exception.TaskVersionConflictException;
+import com.taskmanager.service.TMSService;
+import com.taskmanager.support.QueryCounter;
+import com.taskmanager.support.QueryCounter.Counts;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the number of SQL statements each {@link TMSService} method issues, at several data
+ * sizes. A budget that starts growing with the number of tasks means an N+1 slipped in.
+ * Counts are for cold caches, the second-level cache included, unless the test says otherwise.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tms.projects.purge-async-threshold=50",
+        "tms.projects.purge-interval-ms=3600000",
+        "tms.sync.commit-lag=0s"})
+class TMSServiceImplQueryBudgetTest {
+
+    private static final AtomicInteger users = new AtomicInteger();
+
+    @Autowired
+    private TMSService service;
+
+    @Autowired
+    private ProjectOwnerCache projectOwnerCache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HibernateLoadListener loadListener;
+
+    private Long userId;
+    private Long projectId;
+    private List<Long> taskIds;
+
+    @BeforeEach
+    void installCounter() throws Exception {
+        QueryCounter.install(dataSource);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void readBudgetsDoNotGrowWithTaskCount(int tasks) throws Exception {
+        seed(tasks);
+
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.getProjectsByUserId(userId)));
+        assertEquals(Counts.of(2, 0, 0, 0), QueryCounter.count(() -> service.fetchTasksForProjectAndUser(projectId, userId)));
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.fetchTaskById(taskIds.get(0))));
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.getTopPriorityTasksForUser(userId, 5)));
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.exportTasksForUser(userId, new ByteArrayOutputStream())));
+        // the H2 profile searches in memory, so only the rows of the page are read
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.searchTasksForUser(userId, "task", 0, 20)));
+        // the project rows are still in the query cache from getProjectsByUserId
+        assertEquals(Counts.of(3, 0, 0, 0), QueryCounter.count(() -> service.getDashboardForUser(userId, 3)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void pagingCostsOneQueryPerPage(int tasks) throws Exception {
+        seed(tasks);
+        TaskQueryDTO query = new TaskQueryDTO();
+        query.setLimit(5);
+
+        TaskPageDTO[] first = new TaskPageDTO[1];
+        assertEquals(Counts.of(2, 0, 0, 0), QueryCounter.count(() -> first[0] = service.fetchTaskPageForProjectAndUser(projectId, userId, query)));
+        if (first[0].isHasMore()) {
+            query.setAfter(first[0].getNextCursor());
+            // ownership is cached by now
+            assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.fetchTaskPageForProjectAndUser(projectId, userId, query)));
+        }
+    }
+
+    @Test
+    void pagesSeekPastTiesOnCreationTime() {
+        // a batch shares one creation time, so the cursor's id alone moves the seek on
+        seed(10);
+        for (String status : new String[]{null, "todo"}) {
+            TaskQueryDTO query = new TaskQueryDTO();
+            query.setLimit(3);
+            query.setStatus(status);
+            List<Long> seen = new ArrayList<>();
+            TaskPageDTO page;
+            do {
+                page = service.fetchTaskPageForProjectAndUser(projectId, userId, query);
+                page.getTasks().forEach(t -> seen.add(t.getId()));
+                query.setAfter(page.getNextCursor());
+            } while (page.isHasMore());
+            assertEquals(taskIds, seen);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void cachedReadsDoNotTouchTheDatabase(int tasks) throws Exception {
+        seed(tasks);
+        service.fetchTaskById(taskIds.get(0));
+        service.getTopPriorityTasksForUser(userId, 5);
+
+        assertEquals(Counts.of(0, 0, 0, 0), QueryCounter.count(() -> service.fetchTaskById(taskIds.get(0))));
+        assertEquals(Counts.of(0, 0, 0, 0), QueryCounter.count(() -> service.getTopPriorityTasksForUser(userId, 5)));
+        assertEquals(Counts.of(0, 0, 0, 0), QueryCounter.count(() -> service.getCacheStats()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void singleTaskWritesDoNotGrowWithTaskCount(int tasks) throws Exception {
+        seed(tasks);
+        TasksDTO task = task("budget", 3);
+
+        // each write also adjusts the project's status counters with one relative update
+        assertEquals(Counts.of(1, 1, 1, 0), QueryCounter.count(() -> service.addTaskToProjectForUser(projectId, userId, task)));
+        assertEquals(Counts.of(2, 0, 1, 0), QueryCounter.count(() -> service.updateTask(task, taskIds.get(0))));
+        // from here on the task's project comes from the second-level cache
+        TasksDTO partial = new TasksDTO();
+        partial.setStatus("DONE");
+        assertEquals(Counts.of(1, 0, 2, 0), QueryCounter.count(() -> service.partialUpdateTask(taskIds.get(1 % tasks), partial)));
+        // plus the tombstone for delta sync
+        assertEquals(Counts.of(1, 1, 1, 1), QueryCounter.count(() -> service.deleteTask(taskIds.get(0))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void conditionalWritesDoNotReadTheTask(int tasks) throws Exception {
+        seed(tasks);
+        Long id = taskIds.get(0);
+        long version = service.fetchTaskById(id).getVersion();
+
+        // the status does not change, so only the task update, which returns the row it replaced
+        assertEquals(Counts.of(0, 0, 1, 0), QueryCounter.count(() -> service.updateTask(task("conditional", 4), id, version)));
+        TasksDTO partial = new TasksDTO();
+        partial.setPriority(6);
+        // nothing is cached after the previous write, and nothing needs to be
+        assertEquals(Counts.of(0, 0, 1, 0), QueryCounter.count(() -> service.partialUpdateTask(id, partial, version + 1)));
+        TasksDTO current = service.fetchTaskById(id);
+        assertEquals(version + 2, current.getVersion());
+        assertEquals("conditional", current.getTitle());
+        assertEquals(6, current.getPriority());
+        TasksDTO done = new TasksDTO();
+        done.setStatus("done");
+        // the task update, then the counter move it returned the old status for
+        assertEquals(Counts.of(0, 0, 2, 0), QueryCounter.count(() -> service.partialUpdateTask(id, done, version + 2)));
+        assertEquals("completed", service.fetchTaskById(id).getStatus());
+        // a stale version is one update that matches nothing, then the read that makes it a 412
+        assertEquals(Counts.of(1, 0, 1, 0), QueryCounter.count(() -> assertThrows(TaskVersionConflictException.class,
+                () -> service.partialUpdateTask(id, partial, version))));
+    }
+
+    @Test
+    void staleConditionalWritesChangeNothing() {
+        seed(3);
+        Long id = taskIds.get(0);
+        long version = service.fetchTaskById(id).getVersion();
+        TasksDTO done = new TasksDTO();
+        done.setStatus("done");
+        TasksDTO inProgress = new TasksDTO();
+        inProgress.setStatus("in-progress");
+
+        service.partialUpdateTask(id, done, version);
+        assertThrows(TaskVersionConflictException.class, () -> service.partialUpdateTask(id, inProgress, version));
+
+        // unconditional and bulk writes move the version on as well
+        service.updateTask(task("plain", 5), taskIds.get(1));
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setIds(List.of(taskIds.get(2)));
+        patch.setPriority(9);
+        service.bulkPatchTasks(userId, patch);
+        assertThrows(TaskVersionConflictException.class, () -> service.partialUpdateTask(taskIds.get(1), inProgress, version));
+        assertThrows(TaskVersionConflictException.class, () -> service.partialUpdateTask(taskIds.get(2), inProgress, version));
+
+        TasksDTO current = service.fetchTaskById(id);
+        assertEquals("completed", current.getStatus());
+        assertEquals(version + 1, current.getVersion());
+        ProjectStatusCountsDTO counts = service.getStatusCountsForUser(userId).stream()
+                .filter(c -> c.getProjectId().equals(projectId)).findFirst().orElseThrow();
+        assertEquals(Map.of("pending", 2L, "in-progress", 0L, "completed", 1L), counts.getCounts());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void bulkWritesAreOneStatementPerBatch(int tasks) throws Exception {
+        seed(tasks);
+        List<TasksDTO> batch = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) batch.add(task("bulk " + i, 1 + i % 10));
+
+        assertEquals(Counts.of(1, 1, 1, 0), QueryCounter.count(() -> service.addTasksToProjectForUser(projectId, userId, batch)));
+
+        BulkTaskPatchDTO priorityOnly = new BulkTaskPatchDTO();
+        priorityOnly.setIds(taskIds);
+        priorityOnly.setPriority(2);
+        assertEquals(Counts.of(0, 0, 1, 0), QueryCounter.count(() -> service.bulkPatchTasks(userId, priorityOnly)));
+
+        // a status change costs one update per source status plus one counter move, per project
+        BulkTaskPatchDTO byIds = new BulkTaskPatchDTO();
+        byIds.setIds(taskIds);
+        byIds.setStatus("IN_PROGRESS");
+        assertEquals(Counts.of(1, 0, 4, 0), QueryCounter.count(() -> service.bulkPatchTasks(userId, byIds)));
+
+        BulkTaskPatchDTO byProject = new BulkTaskPatchDTO();
+        byProject.setProjectId(projectId);
+        byProject.setPriority(7);
+        assertEquals(Counts.of(0, 0, 1, 0), QueryCounter.count(() -> service.bulkPatchTasks(userId, byProject)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void projectDeletionDoesNotLoadTasks(int tasks) throws Exception {
+        seed(tasks);
+
+        // projects above tms.projects.purge-async-threshold are only marked here; either way the
+        // project entity is read (the cache is cold), but never its task list
+        Counts expected = tasks > 50 ? Counts.of(3, 1, 1, 1) : Counts.of(3, 1, 0, 3);
+        loadListener.takeEntityLoadCount();
+        loadListener.takeCollectionFetchCount();
+        assertEquals(expected, QueryCounter.count(() -> service.deleteProjectAndAssociatedTasksForUser(projectId, userId)));
+        assertEquals(1, loadListener.takeEntityLoadCount());
+        assertEquals(0, loadListener.takeCollectionFetchCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100})
+    void projectDeletionEvictsOnlyThatProject(int tasks) {
+        seed(tasks);
+        Long otherProjectId = service.getProjectsByUserId(userId).get(1).getId();
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.find(Project.class, projectId);
+            em.find(Project.class, otherProjectId);
+        } finally {
+            em.close();
+        }
+
+        // deleted inline at 10 tasks, marked for the purge worker at 100
+        service.deleteProjectAndAssociatedTasksForUser(projectId, userId);
+        assertTrue(entityManagerFactory.getCache().contains(Project.class, otherProjectId));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void deltaSyncReadsOnlyWhatChanged(int tasks) throws Exception {
+        seed(tasks);
+        Long otherProjectId = service.getProjectsByUserId(userId).get(1).getId();
+        TaskChangesDTO[] sync = new TaskChangesDTO[1];
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> sync[0] = service.getTaskChangesForUser(userId, null, null)));
+        assertEquals(2 * tasks, sync[0].getTasks().size());
+        String since = sync[0].getWatermark();
+
+        service.updateTask(task("changed", 9), taskIds.get(0));
+        service.deleteProjectAndAssociatedTasksForUser(otherProjectId, userId);
+
+        // one seek for tasks and one for tombstones, however many tasks did not change
+        assertEquals(Counts.of(2, 0, 0, 0), QueryCounter.count(() -> sync[0] = service.getTaskChangesForUser(userId, since, null)));
+        assertEquals(List.of(taskIds.get(0)), sync[0].getTasks().stream().map(TasksDTO::getId).toList());
+        assertEquals(List.of(otherProjectId), sync[0].getDeleted().stream().map(TombstoneDTO::getId).toList());
+        assertEquals("project", sync[0].getDeleted().get(0).getType());
+    }
+
+    @Test
+    void deltaSyncPagesThroughTasksWithEqualTimestamps() {
+        seed(100);
+        String since = service.getTaskChangesForUser(userId, null, null).getWatermark();
+        BulkTaskPatchDTO byProject = new BulkTaskPatchDTO();
+        byProject.setProjectId(projectId);
+        byProject.setPriority(2);
+        // one statement, so all 100 rows share one updatedAt
+        service.bulkPatchTasks(userId, byProject);
+
+        List<Long> synced = new ArrayList<>();
+        TaskChangesDTO page;
+        do {
+            page = service.getTaskChangesForUser(userId, since, 30);
+            page.getTasks().forEach(t -> synced.add(t.getId()));
+            since = page.getWatermark();
+        } while (page.isHasMore());
+
+        assertEquals(taskIds, synced.stream().sorted().toList());
+        assertEquals(List.of(), service.getTaskChangesForUser(userId, since, 30).getTasks());
+    }
+
+    @Test
+    void accountAndProjectBudgets() throws Exception {
+        UserDTO user = user();
+
+        // the unique constraints replace the two exists-checks
+        assertEquals(Counts.of(0, 1, 0, 0), QueryCounter.count(() -> service.registerUser(user)));
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> userId = service.loginUser(user).getId()));
+        assertEquals(Counts.of(0, 0, 0, 0), QueryCounter.count(() -> service.loginUser(user)));
+
+        ProjectDTO project = project(userId);
+        evictSecondLevelCache();
+        assertEquals(Counts.of(1, 2, 0, 0), QueryCounter.count(() -> service.createProjectForExistingUser(project)));
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.getStatusCountsForUser(userId)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void secondLevelCacheServesProjectsAndUsers(int tasks) throws Exception {
+        seed(tasks);
+        service.createProjectForExistingUser(project(userId));
+        service.getProjectsByUserId(userId);
+        service.updateTask(task("warm", 3), taskIds.get(0));
+
+        // the project list comes from the query cache, the task's project and its owner from the entity regions
+        assertEquals(Counts.of(0, 0, 0, 0), QueryCounter.count(() -> service.getProjectsByUserId(userId)));
+        assertEquals(Counts.of(1, 0, 1, 0), QueryCounter.count(() -> service.updateTask(task("warm", 4), taskIds.get(0))));
+        assertEquals(Counts.of(0, 2, 0, 0), QueryCounter.count(() -> service.createProjectForExistingUser(project(userId))));
+        // the insert into projects retires the cached list
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.getProjectsByUserId(userId)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void statusCountsMatchTheTasks(int tasks) throws Exception {
+        seed(tasks);
+        TasksDTO partial = new TasksDTO();
+        partial.setStatus("completed");
+        service.partialUpdateTask(taskIds.get(0), partial);
+        service.deleteTask(taskIds.get(tasks - 1));
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setProjectId(projectId);
+        patch.setFromStatus("pending");
+        patch.setStatus("in-progress");
+        service.bulkPatchTasks(userId, patch);
+
+        Map<String, Long> actual = new HashMap<>();
+        for (TasksDTO t : service.fetchTasksForProjectAndUser(projectId, userId)) actual.merge(t.getStatus(), 1L, Long::sum);
+        ProjectStatusCountsDTO counts = service.getStatusCountsForUser(userId).stream()
+                .filter(c -> c.getProjectId().equals(projectId)).findFirst().orElseThrow();
+
+        for (TaskStatus status : TaskStatus.values()) {
+            assertEquals(actual.getOrDefault(status.value(), 0L), counts.getCounts().get(status.value()), status.value());
+        }
+        assertEquals(tasks - 1, counts.getTotal());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void bulkRegistrationIsOneLookupAndOneBatchPerChunk(int count) throws Exception {
+        List<UserDTO> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) batch.add(user());
+
+        assertEquals(Counts.of(1, 1, 0, 0), QueryCounter.count(() -> service.registerUsers(batch)));
+        // the second attempt only finds conflicts
+        assertEquals(Counts.of(1, 0, 0, 0), QueryCounter.count(() -> service.registerUsers(batch)));
+    }
+
+    @Test
+    void dashboardRanksUpcomingTasksPerProject() {
+        seed(1);
+        Long otherProject = service.getProjectsByUserId(userId).get(1).getId();
+        LocalDate today = LocalDate.now();
+        List<TasksDTO> dated = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TasksDTO t = task("due " + i, 5);
+            t.setDueDate(today.plusDays(5 - i));
+            dated.add(t);
+        }
+        TasksDTO late = task("late", 5);
+        late.setDueDate(today.minusDays(1));
+        TasksDTO lateButDone = task("late but done", 5);
+        lateButDone.setDueDate(today.minusDays(2));
+        lateButDone.setStatus("DONE");
+        dated.add(late);
+        dated.add(lateButDone);
+        service.addTasksToProjectForUser(projectId, userId, dated);
+        TasksDTO single = task("other", 5);
+        single.setDueDate(today);
+        service.addTaskToProjectForUser(otherProject, userId, single);
+
+        DashboardDTO dashboard = service.getDashboardForUser(userId, 2);
+
+        DashboardProjectDTO first = dashboard.getProjects().get(0);
+        assertEquals(projectId, first.getProject().getId());
+        assertEquals(8, first.getTaskCount());
+        assertEquals(1, first.getOverdueCount());
+        assertEquals(List.of("due 4", "due 3"), first.getUpcomingTasks().stream().map(TasksDTO::getTitle).toList());
+        DashboardProjectDTO second = dashboard.getProjects().get(1);
+        assertEquals(List.of("other"), second.getUpcomingTasks().stream().map(TasksDTO::getTitle).toList());
+        assertEquals(first.getTaskCount() + second.getTaskCount(), dashboard.getTaskCount());
+        assertEquals(1, dashboard.getOverdueCount());
+    }
+
+    private void seed(int tasks) {
+        UserDTO user = user();
+        service.registerUser(user);
+        userId = service.loginUser(user).getId();
+        service.createProjectForExistingUser(project(userId));
+        service.createProjectForExistingUser(project(userId));
+        List<ProjectDTO> projects = service.getProjectsByUserId(userId);
+        projectId = projects.get(0).getId();
+
+        List<TasksDTO> batch = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) batch.add(task("task " + i, 1 + i % 10));
+        taskIds = service.addTasksToProjectForUser(projectId, userId, batch).getIds();
+        service.addTasksToProjectForUser(projects.get(1).getId(), userId, batch);
+
+        projects.forEach(p -> projectOwnerCache.invalidate(p.getId()));
+        evictSecondLevelCache();
+    }
+
+    private void evictSecondLevelCache() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+    }
+
+    private static UserDTO user() {
+        int n = users.incrementAndGet();
+        UserDTO user = new UserDTO();
+        user.setName("budget" + n);
+        user.setEmail("budget" + n + "@example.com");
+        return user;
+    }
+
+    private static ProjectDTO project(Long userId) {
+        ProjectDTO project = new ProjectDTO();
+        project.setTitle("Budget project");
+        project.setStartDate(LocalDate.now());
+        project.setUserId(userId);
+        return project;
+    }
+
+    private static TasksDTO task(String title, int priority) {
+        TasksDTO task = new TasksDTO();
+        task.setTitle(title);
+        task.setStatus("TODO");
+        task.setPriority(priority);
+        return task;
+    }
+}
@@ -1,20 +1,57 @@
 package com.taskmanager.service.Impl;
+import com.taskmanager.cache.AuthenticatedUserCache;
+import com.taskmanager.cache.ProjectOwnerCache;
+import com.taskmanager.cache.TaskDetailCache;
+import com.taskmanager.cache.TopTasksCache;
+import com.taskmanager.datasource.ReadYourWrites;
 import com.taskmanager.dto.*;
 import com.taskmanager.entity.Project;
+import com.taskmanager.entity.ProjectStatusCount;
+import com.taskmanager.entity.TaskStatus;
 import com.taskmanager.entity.Tasks;
+import com.taskmanager.entity.Tombstone;
 import com.taskmanager.entity.User;
+import com.taskmanager.events.ChangeEvent;
+import com.taskmanager.events.ChangeEventBus;
 import com.taskmanager.exception.TMSException;
+import com.taskmanager.exception.TaskVersionConflictException;
 import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.ProjectStatusCountRepository;
 import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TombstoneRepository;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.repository.projection.ProjectCountRow;
+import com.taskmanager.repository.projection.ProjectRow;
+import com.taskmanager.repository.projection.ProjectStatusRow;
+import com.taskmanager.repository.projection.TaskProjectRow;
+import com.taskmanager.repository.projection.TaskRow;
+import com.taskmanager.search.TaskSearchIndex;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +69,42 @@ class TMSServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ProjectStatusCountRepository statusCountRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ChangeEventBus changeEvents;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    @Spy
+    private TopTasksCache topTasksCache = new TopTasksCache(20, 100);
+
+    @Spy
+    private ProjectOwnerCache projectOwnerCache = new ProjectOwnerCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private TaskDetailCache taskDetailCache = new TaskDetailCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private AuthenticatedUserCache authenticatedUserCache = new AuthenticatedUserCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().build();
+
     @InjectMocks
     private TMSServiceImpl service;
 
@@ -55,21 +128,28 @@ class TMSServiceImplTest {
         task.setId(100L);
         task.setTitle("Task 1");
         task.setPriority(8);
+        task.setStatus(TaskStatus.PENDING);
         task.setProject(project);
     }
+
+    private TaskRow row(Tasks t) {
+        Project p = t.getProject();
+        return new TaskRow(t.getId(), t.getTitle(), t.getDescription(), t.getStatus(), t.getDueDate(),
+                t.getPriority(), t.getCreatedAt(), t.getUpdatedAt(), t.getVersion(), p.getId(), p.getTitle(),
+                p.getDescription(), p.getStartDate(), p.getEndDate(), p.getUser().getId());
+    }
     @Test
     void registerUser_success() {
         UserDTO dto = new UserDTO();
         dto.setName("Uday");
         dto.setEmail("uday@test.com");
 
-        when(userRepository.existsByName("Uday")).thenReturn(false);
-        when(userRepository.existsByEmail("uday@test.com")).thenReturn(false);
-
         ResponseDTO response = service.registerUser(dto);
 
         assertEquals("User registered successfully", response.getMessage());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByName(any());
+        verify(userRepository, never()).existsByEmail(any());
     }
     @Test
     void registerUser_duplicateEmail() {
@@ -77,10 +157,85 @@ class TMSServiceImplTest {
         dto.setName("Uday");
         dto.setEmail("uday@test.com");
 
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_email"));
         when(userRepository.existsByName("Uday")).thenReturn(false);
-        when(userRepository.existsByEmail("uday@test.com")).thenReturn(true);
 
-        assertThrows(TMSException.class, () -> service.registerUser(dto));
+        TMSException ex = assertThrows(TMSException.class, () -> service.registerUser(dto));
+        assertEquals("Email already registered", ex.getMessage());
+    }
+    @Test
+    void registerUser_duplicateName() {
+        UserDTO dto = new UserDTO();
+        dto.setName("Uday");
+        dto.setEmail("other@test.com");
+
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_name"));
+        when(userRepository.existsByName("Uday")).thenReturn(true);
+
+        TMSException ex = assertThrows(TMSException.class, () -> service.registerUser(dto));
+        assertEquals("User name already exists", ex.getMessage());
+    }
+    @Test
+    void registerUsers_reportsConflictsPerRow() {
+        ReflectionTestUtils.setField(service, "bulkBatchSize", 2);
+        AtomicLong ids = new AtomicLong(500);
+        doAnswer(inv -> {
+            ((User) inv.getArgument(0)).setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(User.class));
+        when(userRepository.findByNameInOrEmailIn(anyCollection(), anyCollection())).thenReturn(List.of(user));
+
+        List<UserDTO> dtos = List.of(
+                userDto("Uday", "fresh@test.com"),
+                userDto("Ravi", "ravi@test.com"),
+                userDto("Ravi", "ravi2@test.com"),
+                userDto("Asha", "uday@test.com"),
+                userDto("Mira", "not-an-email"),
+                userDto("Kiran", "kiran@test.com"));
+
+        BulkUserResponseDTO response = service.registerUsers(dtos);
+
+        assertEquals(2, response.getCreated());
+        assertEquals(List.of(501L, 502L), response.getIds());
+        assertEquals(List.of(0, 2, 3, 4), response.getConflicts().stream().map(BulkUserConflictDTO::getIndex).toList());
+        assertEquals(List.of("User name already exists", "Duplicate name in request", "Email already registered", "Email must be valid"),
+                response.getConflicts().stream().map(BulkUserConflictDTO::getMessage).toList());
+        // two chunks of valid rows: one lookup and one flush each
+        verify(userRepository, times(2)).findByNameInOrEmailIn(anyCollection(), anyCollection());
+        verify(entityManager, times(2)).flush();
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+    @Test
+    void registerUsers_fallsBackToSingleInsertsWhenABatchIsRejected() {
+        when(userRepository.findByNameInOrEmailIn(anyCollection(), anyCollection())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("uk_users_name")).when(entityManager).flush();
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(inv -> {
+            User u = inv.getArgument(0);
+            if (u.getName().equals("Raced")) throw new DataIntegrityViolationException("uk_users_name");
+            u.setId(7L);
+            return u;
+        });
+        when(userRepository.existsByName("Raced")).thenReturn(true);
+
+        BulkUserResponseDTO response = service.registerUsers(List.of(userDto("Ravi", "ravi@test.com"), userDto("Raced", "raced@test.com")));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(List.of(7L), response.getIds());
+        assertEquals(1, response.getConflicts().size());
+        assertEquals(1, response.getConflicts().get(0).getIndex());
+        assertEquals("User name already exists", response.getConflicts().get(0).getMessage());
+    }
+    @Test
+    void registerUsers_rejectsEmptyRequest() {
+        assertThrows(TMSException.class, () -> service.registerUsers(List.of()));
+        verifyNoInteractions(userRepository);
+    }
+
+    private static UserDTO userDto(String name, String email) {
+        UserDTO dto = new UserDTO();
+        dto.setName(name);
+        dto.setEmail(email);
+        return dto;
     }
     @Test
     void loginUser_success() {
@@ -88,7 +243,7 @@ class TMSServiceImplTest {
         dto.setName("Uday");
         dto.setEmail("uday@test.com");
 
-        when(userRepository.findByNameIgnoreCase("Uday"))
+        when(userRepository.findByNameNormalized("uday"))
                 .thenReturn(Optional.of(user));
 
         UserDTO result = service.loginUser(dto);
@@ -103,11 +258,41 @@ class TMSServiceImplTest {
         dto.setName("Uday");
         dto.setEmail("wrong@test.com");
 
-        when(userRepository.findByNameIgnoreCase("Uday"))
+        when(userRepository.findByNameNormalized("uday"))
                 .thenReturn(Optional.of(user));
 
         assertThrows(TMSException.class, () -> service.loginUser(dto));
     }
+
+    @Test
+    void loginUser_normalizesAndCachesTheLookup() {
+        when(userRepository.findByNameNormalized("uday"))
+                .thenReturn(Optional.of(user));
+        UserDTO first = new UserDTO();
+        first.setName(" UDAY ");
+        first.setEmail("Uday@Test.com ");
+        UserDTO second = new UserDTO();
+        second.setName("uday");
+        second.setEmail("uday@test.com");
+
+        assertEquals(1L, service.loginUser(first).getId());
+        assertEquals(1L, service.loginUser(second).getId());
+
+        verify(userRepository, times(1)).findByNameNormalized("uday");
+    }
+
+    @Test
+    void loginUser_unknownUserIsNotCached() {
+        UserDTO dto = new UserDTO();
+        dto.setName("ghost");
+        dto.setEmail("ghost@test.com");
+        when(userRepository.findByNameNormalized("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(TMSException.class, () -> service.loginUser(dto));
+        assertThrows(TMSException.class, () -> service.loginUser(dto));
+
+        verify(userRepository, times(2)).findByNameNormalized("ghost");
+    }
     @Test
     void createProject_success() {
         ProjectDTO dto = new ProjectDTO();
@@ -120,16 +305,18 @@ class TMSServiceImplTest {
 
         assertEquals("Project created", response.getMessage());
         verify(projectRepository).save(any(Project.class));
+        verify(entityManager, times(TaskStatus.values().length)).persist(any(ProjectStatusCount.class));
     }
     @Test
     void getProjectsByUserId_success() {
-        when(projectRepository.findByUser_Id(1L))
-                .thenReturn(List.of(project));
+        when(projectRepository.findRowsByUserId(1L))
+                .thenReturn(List.of(new ProjectRow(10L, "TMS", null, null, null, 1L)));
 
         List<ProjectDTO> result = service.getProjectsByUserId(1L);
 
         assertEquals(1, result.size());
         assertEquals(project.getTitle(), result.get(0).getTitle());
+        assertEquals(1L, result.get(0).getUserId());
     }
     @Test
     void addTaskToProject_success() {
@@ -137,54 +324,298 @@ class TMSServiceImplTest {
         dto.setTitle("Task");
         dto.setPriority(5);
 
-        when(projectRepository.findById(10L))
-                .thenReturn(Optional.of(project));
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
 
         ResponseDTO response = service.addTaskToProjectForUser(10L, 1L, dto);
 
         assertEquals("Task added", response.getMessage());
         verify(taskRepository).save(any(Tasks.class));
+        // no status given: the task starts out pending
+        verify(statusCountRepository).adjust(10L, TaskStatus.PENDING.code(), 1);
+        verify(changeEvents).publish(eq(1L), argThat(e -> ChangeEvent.TASK_CREATED.equals(e.type()) && e.projectId() == 10L));
+    }
+    @Test
+    void addTasksBulk_flushesInBatches() {
+        ReflectionTestUtils.setField(service, "bulkBatchSize", 2);
+        AtomicLong ids = new AtomicLong(500);
+        doAnswer(inv -> {
+            ((Tasks) inv.getArgument(0)).setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Tasks.class));
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+
+        List<TasksDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TasksDTO dto = new TasksDTO();
+            dto.setTitle("Task " + i);
+            dto.setPriority(5);
+            dto.setStatus(i < 3 ? "TODO" : "DONE");
+            dtos.add(dto);
+        }
+
+        BulkTaskResponseDTO response = service.addTasksToProjectForUser(10L, 1L, dtos);
+
+        assertEquals(5, response.getCreated());
+        assertEquals(List.of(501L, 502L, 503L, 504L, 505L), response.getIds());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(projectRepository, times(1)).findOwnerIdById(10L);
+        verify(statusCountRepository).adjust(10L, TaskStatus.PENDING.code(), 3);
+        verify(statusCountRepository).adjust(10L, TaskStatus.COMPLETED.code(), 2);
+    }
+    @Test
+    void addTasksBulk_rejectsUnknownStatusBeforeWriting() {
+        TasksDTO bad = new TasksDTO();
+        bad.setTitle("bad");
+        bad.setStatus("someday");
+
+        TMSException ex = assertThrows(TMSException.class,
+                () -> service.addTasksToProjectForUser(10L, 1L, List.of(bad)));
+
+        assertEquals("Task 0: Invalid status: someday", ex.getMessage());
+        verifyNoInteractions(entityManager, statusCountRepository);
+    }
+    @Test
+    void addTasksBulk_rejectsInvalidPriorityBeforeWriting() {
+        TasksDTO ok = new TasksDTO();
+        ok.setTitle("ok");
+        TasksDTO bad = new TasksDTO();
+        bad.setTitle("bad");
+        bad.setPriority(11);
+
+        TMSException ex = assertThrows(TMSException.class,
+                () -> service.addTasksToProjectForUser(10L, 1L, List.of(ok, bad)));
+
+        assertEquals("Task 1: Priority must be between 1 and 10", ex.getMessage());
+        verifyNoInteractions(entityManager);
+    }
+    @Test
+    void addTasksBulk_unauthorized() {
+        TasksDTO dto = new TasksDTO();
+        dto.setTitle("Task");
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+
+        assertThrows(TMSException.class,
+                () -> service.addTasksToProjectForUser(10L, 2L, List.of(dto)));
+        verifyNoInteractions(entityManager);
     }
     @Test
     void fetchTasksForProjectAndUser_success() {
-        when(projectRepository.findById(10L))
-                .thenReturn(Optional.of(project));
-        when(taskRepository.findByProject(project))
-                .thenReturn(List.of(task));
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(taskRepository.findRowsByProjectId(10L))
+                .thenReturn(List.of(row(task)));
 
         List<TasksDTO> result =
                 service.fetchTasksForProjectAndUser(10L, 1L);
 
         assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getProjectDTO().getUserId());
+    }
+    @Test
+    void fetchTaskPage_firstPageReturnsCursor() {
+        Tasks second = new Tasks();
+        second.setId(101L);
+        second.setCreatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        second.setProject(project);
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+
+        TaskQueryDTO query = new TaskQueryDTO();
+        query.setLimit(1);
+        query.setStatus("TODO");
+
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(taskRepository.findPageByProjectAndStatus(eq(10L), eq(TaskStatus.PENDING), isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(row(task), row(second)));
+
+        TaskPageDTO page = service.fetchTaskPageForProjectAndUser(10L, 1L, query);
+
+        assertEquals(1, page.getTasks().size());
+        assertTrue(page.isHasMore());
+        TaskCursor cursor = TaskCursor.decode(page.getNextCursor());
+        assertEquals(task.getCreatedAt(), cursor.createdAt());
+        assertEquals(100L, cursor.id());
+    }
+    @Test
+    void fetchTaskPage_afterCursorSeeksPastLastRow() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+        TaskQueryDTO query = new TaskQueryDTO();
+        query.setAfter(new TaskCursor(createdAt, 100L).encode());
+
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(taskRepository.findPageByProjectAfter(eq(10L), eq(createdAt), eq(100L), isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        TaskPageDTO page = service.fetchTaskPageForProjectAndUser(10L, 1L, query);
+
+        assertTrue(page.getTasks().isEmpty());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+    @Test
+    void fetchTaskPage_invalidCursor() {
+        TaskQueryDTO query = new TaskQueryDTO();
+        query.setAfter("not-a-cursor");
+
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+
+        assertThrows(TMSException.class,
+                () -> service.fetchTaskPageForProjectAndUser(10L, 1L, query));
+    }
+    @Test
+    void fetchTaskPage_limitOutOfRange() {
+        TaskQueryDTO query = new TaskQueryDTO();
+        query.setLimit(0);
+
+        assertThrows(TMSException.class,
+                () -> service.fetchTaskPageForProjectAndUser(10L, 1L, query));
+        verifyNoInteractions(taskRepository);
+    }
+    @Test
+    void taskChanges_fullPageEndsAtItsLastRow() {
+        Tasks second = new Tasks();
+        second.setId(101L);
+        second.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        second.setProject(project);
+        task.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+
+        when(taskRepository.findChangedByOwner(eq(1L), any(), eq(0L), any(), any(Pageable.class)))
+                .thenReturn(List.of(row(task), row(second)));
+
+        TaskChangesDTO changes = service.getTaskChangesForUser(1L, null, 1);
+
+        assertEquals(1, changes.getTasks().size());
+        assertTrue(changes.isHasMore());
+        assertEquals(new SyncWatermark(task.getUpdatedAt(), 100L), SyncWatermark.decode(changes.getWatermark()));
+        // a full sync has nothing to delete
+        verifyNoInteractions(tombstoneRepository);
+    }
+    @Test
+    void taskChanges_sinceWatermarkAddsTombstones() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(5);
+        when(taskRepository.findChangedByOwner(eq(1L), eq(since), eq(Long.MAX_VALUE), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(tombstoneRepository.findByOwnerBetween(eq(1L), eq(since), any()))
+                .thenReturn(List.of(new Tombstone(1L, Tombstone.Kind.TASK, 55L, 10L, since.plusMinutes(1))));
+
+        TaskChangesDTO changes = service.getTaskChangesForUser(1L, new SyncWatermark(since, null).encode(), null);
+
+        assertFalse(changes.isReset());
+        assertFalse(changes.isHasMore());
+        assertEquals(1, changes.getDeleted().size());
+        assertEquals("task", changes.getDeleted().get(0).getType());
+        assertEquals(55L, changes.getDeleted().get(0).getId());
+        assertTrue(SyncWatermark.decode(changes.getWatermark()).updatedAt().isAfter(since));
+    }
+    @Test
+    void taskChanges_sinceOlderThanTombstonesIsAFullReset() {
+        String since = new SyncWatermark(LocalDateTime.now().minusDays(60), null).encode();
+        when(taskRepository.findChangedByOwner(eq(1L), eq(LocalDateTime.of(1970, 1, 1, 0, 0)), eq(0L), any(), any(Pageable.class)))
+                .thenReturn(List.of(row(task)));
+
+        TaskChangesDTO changes = service.getTaskChangesForUser(1L, since, null);
+
+        assertTrue(changes.isReset());
+        assertEquals(1, changes.getTasks().size());
+        verifyNoInteractions(tombstoneRepository);
+    }
+    @Test
+    void taskChanges_invalidSince() {
+        assertThrows(TMSException.class, () -> service.getTaskChangesForUser(1L, "not-a-watermark", null));
+        verifyNoInteractions(taskRepository);
+    }
+    @Test
+    void ownershipCheck_servedFromCacheOnRepeatCalls() {
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(taskRepository.findRowsByProjectId(10L))
+                .thenReturn(List.of(row(task)));
+
+        service.fetchTasksForProjectAndUser(10L, 1L);
+        service.fetchTasksForProjectAndUser(10L, 1L);
+        assertThrows(TMSException.class, () -> service.fetchTasksForProjectAndUser(10L, 2L));
+
+        verify(projectRepository, times(1)).findOwnerIdById(10L);
+        verify(projectRepository, never()).findById(any());
+        assertEquals(2, projectOwnerCache.stats().hits());
+        assertEquals(1, projectOwnerCache.stats().misses());
+    }
+    @Test
+    void deleteProject_invalidatesOwnershipCache() {
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L), Optional.empty());
+        when(statusCountRepository.sumByProjectId(10L)).thenReturn(0L);
+
+        service.deleteProjectAndAssociatedTasksForUser(10L, 1L);
+
+        assertThrows(TMSException.class, () -> service.fetchTasksForProjectAndUser(10L, 1L));
+        verify(projectRepository, times(2)).findOwnerIdById(10L);
     }
     @Test
     void fetchTaskById_success() {
-        when(taskRepository.findById(100L))
-                .thenReturn(Optional.of(task));
+        when(taskRepository.findRowById(100L))
+                .thenReturn(Optional.of(row(task)));
 
         TasksDTO dto = service.fetchTaskById(100L);
 
         assertEquals(task.getId(), dto.getId());
+        assertEquals("TMS", dto.getProjectDTO().getTitle());
+    }
+    @Test
+    void fetchTaskById_cachedUntilUpdated() {
+        when(taskRepository.findRowById(100L))
+                .thenReturn(Optional.of(row(task)));
+        when(taskRepository.findByIdForUpdate(100L))
+                .thenReturn(Optional.of(task));
+
+        service.fetchTaskById(100L);
+        service.fetchTaskById(100L);
+        verify(taskRepository, times(1)).findRowById(100L);
+
+        TasksDTO dto = new TasksDTO();
+        dto.setStatus("DONE");
+        service.partialUpdateTask(100L, dto);
+        service.fetchTaskById(100L);
+
+        verify(taskRepository, times(2)).findRowById(100L);
+    }
+    @Test
+    void fetchTaskById_projectDeletionInvalidates() {
+        when(taskRepository.findRowById(100L))
+                .thenReturn(Optional.of(row(task)), Optional.empty());
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+
+        service.fetchTaskById(100L);
+        service.deleteProjectAndAssociatedTasksForUser(10L, 1L);
+
+        assertThrows(TMSException.class, () -> service.fetchTaskById(100L));
     }
     @Test
     void updateTask_success() {
         TasksDTO dto = new TasksDTO();
         dto.setPriority(7);
 
-        when(taskRepository.findById(100L))
+        when(taskRepository.findByIdForUpdate(100L))
                 .thenReturn(Optional.of(task));
 
         ResponseDTO response = service.updateTask(dto, 100L);
 
         assertEquals("Task updated successfully", response.getMessage());
-        verify(taskRepository).save(task);
+        verify(taskRepository).saveAndFlush(task);
     }
     @Test
     void partialUpdateTask_success() {
         TasksDTO dto = new TasksDTO();
         dto.setStatus("DONE");
 
-        when(taskRepository.findById(100L))
+        when(taskRepository.findByIdForUpdate(100L))
                 .thenReturn(Optional.of(task));
 
         ResponseDTO response = service.partialUpdateTask(100L, dto);
@@ -192,33 +623,413 @@ class TMSServiceImplTest {
         assertEquals("Task partially updated", response.getMessage());
     }
     @Test
+    void updateTask_withVersionIsOneConditionalUpdateWithoutRead() {
+        task.setVersion(3L);
+        when(taskRepository.replaceIfVersion(eq(100L), eq(3L), any(), any(), eq(TaskStatus.COMPLETED), any(), any(), any()))
+                .thenReturn(Optional.of(row(task)));
+        TasksDTO dto = new TasksDTO();
+        dto.setTitle("Renamed");
+        dto.setStatus("done");
+        dto.setPriority(9);
+
+        ResponseDTO response = service.updateTask(dto, 100L, 3L);
+
+        assertEquals("Task updated successfully", response.getMessage());
+        // the row the update returned names the status it left; the counters move only after the task row
+        InOrder order = inOrder(taskRepository, statusCountRepository);
+        order.verify(taskRepository).replaceIfVersion(eq(100L), eq(3L), any(), any(), eq(TaskStatus.COMPLETED), any(), any(), any());
+        order.verify(statusCountRepository).move(10L, TaskStatus.PENDING.code(), TaskStatus.COMPLETED.code(), 1);
+        verify(taskRepository, never()).findByIdForUpdate(any());
+        verify(taskRepository, never()).findRowById(any());
+        verify(taskRepository, never()).existsById(any());
+        verify(changeEvents).publish(1L, ChangeEvent.taskUpdated(10L, 100L, 4L));
+    }
+    @Test
+    void partialUpdateTask_withVersionAndSameStatusLeavesCountersAlone() {
+        task.setVersion(2L);
+        when(taskRepository.patchIfVersion(eq(100L), eq(2L), any(), any(), eq(TaskStatus.PENDING), any(), any()))
+                .thenReturn(Optional.of(row(task)));
+        TasksDTO dto = new TasksDTO();
+        dto.setStatus("todo");
+        dto.setPriority(4);
+
+        service.partialUpdateTask(100L, dto, 2L);
+
+        verifyNoInteractions(statusCountRepository);
+        verify(taskRepository, never()).findRowById(any());
+        verify(changeEvents).publish(1L, ChangeEvent.taskUpdated(10L, 100L, 3L));
+    }
+    @Test
+    void partialUpdateTask_withStaleVersionThrowsConflict() {
+        when(taskRepository.existsById(100L))
+                .thenReturn(true);
+        TasksDTO dto = new TasksDTO();
+        dto.setPriority(4);
+
+        assertThrows(TaskVersionConflictException.class, () -> service.partialUpdateTask(100L, dto, 2L));
+        verifyNoInteractions(statusCountRepository);
+        verifyNoInteractions(changeEvents);
+    }
+    @Test
+    void partialUpdateTask_statusChangeWithStaleVersionLeavesCountersAlone() {
+        when(taskRepository.existsById(100L))
+                .thenReturn(true);
+        TasksDTO dto = new TasksDTO();
+        dto.setStatus("done");
+
+        assertThrows(TaskVersionConflictException.class, () -> service.partialUpdateTask(100L, dto, 2L));
+        // one guarded update that matched nothing, then the existence check
+        verify(taskRepository, times(1))
+                .patchIfVersion(eq(100L), eq(2L), any(), any(), eq(TaskStatus.COMPLETED), any(), any());
+        verifyNoInteractions(statusCountRepository);
+    }
+    @Test
+    void partialUpdateTask_withVersionOfMissingTaskIsNotFound() {
+        when(taskRepository.existsById(100L))
+                .thenReturn(false);
+        TasksDTO dto = new TasksDTO();
+        dto.setPriority(4);
+
+        TMSException e = assertThrows(TMSException.class, () -> service.partialUpdateTask(100L, dto, 2L));
+        assertEquals("Id not found", e.getMessage());
+    }
+    @Test
+    void partialUpdateTask_statusChangeMovesProjectCounters() {
+        TasksDTO dto = new TasksDTO();
+        dto.setStatus("in-progress");
+
+        when(taskRepository.findByIdForUpdate(100L))
+                .thenReturn(Optional.of(task));
+
+        service.partialUpdateTask(100L, dto);
+
+        assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
+        verify(statusCountRepository).move(10L, TaskStatus.PENDING.code(), TaskStatus.IN_PROGRESS.code(), 1);
+    }
+    @Test
+    void partialUpdateTask_sameStatusLeavesCountersAlone() {
+        TasksDTO dto = new TasksDTO();
+        dto.setStatus("Pending");
+
+        when(taskRepository.findByIdForUpdate(100L))
+                .thenReturn(Optional.of(task));
+
+        service.partialUpdateTask(100L, dto);
+
+        verifyNoInteractions(statusCountRepository);
+    }
+    @Test
+    void bulkPatchTasks_priorityOnlyRunsOneUpdatePerChunk() {
+        ReflectionTestUtils.setField(service, "bulkUpdateChunkSize", 2);
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setIds(List.of(1L, 2L, 3L, 3L));
+        patch.setPriority(4);
+
+        when(taskRepository.patchByIds(anyList(), eq(1L), isNull(), eq(4), any(LocalDateTime.class)))
+                .thenReturn(2, 1);
+
+        BulkUpdateResponseDTO response = service.bulkPatchTasks(1L, patch);
+
+        assertEquals(3, response.getUpdated());
+        verify(taskRepository).patchByIds(eq(List.of(1L, 2L)), eq(1L), isNull(), eq(4), any(LocalDateTime.class));
+        verify(taskRepository).patchByIds(eq(List.of(3L)), eq(1L), isNull(), eq(4), any(LocalDateTime.class));
+        verify(taskRepository, never()).findById(any());
+        verifyNoInteractions(statusCountRepository);
+    }
+    @Test
+    void bulkPatchTasks_statusByIdsMovesCountersPerProjectAndSourceStatus() {
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setIds(List.of(1L, 2L, 3L));
+        patch.setStatus("DONE");
+
+        when(taskRepository.findProjectsByIdsAndOwner(List.of(1L, 2L, 3L), 1L))
+                .thenReturn(List.of(new TaskProjectRow(1L, 10L), new TaskProjectRow(2L, 10L), new TaskProjectRow(3L, 11L)));
+        // project 10 holds two pending tasks, project 11 one in progress
+        when(taskRepository.patchByIdsInProject(anyList(), anyLong(), any(TaskStatus.class), eq(TaskStatus.COMPLETED), isNull(), any(LocalDateTime.class)))
+                .thenAnswer(inv -> {
+                    Long projectId = inv.getArgument(1);
+                    TaskStatus from = inv.getArgument(2);
+                    if (projectId == 10L && from == TaskStatus.PENDING) return 2;
+                    if (projectId == 11L && from == TaskStatus.IN_PROGRESS) return 1;
+                    return 0;
+                });
+
+        BulkUpdateResponseDTO response = service.bulkPatchTasks(1L, patch);
+
+        assertEquals(3, response.getUpdated());
+        verify(statusCountRepository).move(10L, TaskStatus.PENDING.code(), TaskStatus.COMPLETED.code(), 2);
+        verify(statusCountRepository).move(11L, TaskStatus.IN_PROGRESS.code(), TaskStatus.COMPLETED.code(), 1);
+        verifyNoMoreInteractions(statusCountRepository);
+    }
+    @Test
+    void bulkPatchTasks_byProjectAndStatus() {
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setProjectId(10L);
+        patch.setFromStatus("TODO");
+        patch.setPriority(9);
+
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(taskRepository.patchByProject(eq(10L), eq(TaskStatus.PENDING), isNull(), eq(9), any(LocalDateTime.class)))
+                .thenReturn(42);
+
+        BulkUpdateResponseDTO response = service.bulkPatchTasks(1L, patch);
+
+        assertEquals(42, response.getUpdated());
+    }
+    @Test
+    void bulkPatchTasks_invalidStatusRejectedUpfront() {
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setIds(List.of(1L));
+        patch.setStatus("archived");
+
+        assertThrows(TMSException.class, () -> service.bulkPatchTasks(1L, patch));
+        verifyNoInteractions(taskRepository);
+    }
+    @Test
+    void bulkPatchTasks_invalidPriorityRejectedUpfront() {
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setIds(List.of(1L));
+        patch.setPriority(0);
+
+        assertThrows(TMSException.class, () -> service.bulkPatchTasks(1L, patch));
+        verifyNoInteractions(taskRepository);
+    }
+    @Test
+    void bulkPatchTasks_requiresExactlyOneTarget() {
+        BulkTaskPatchDTO patch = new BulkTaskPatchDTO();
+        patch.setIds(List.of(1L));
+        patch.setProjectId(10L);
+        patch.setStatus("DONE");
+
+        assertThrows(TMSException.class, () -> service.bulkPatchTasks(1L, patch));
+        verifyNoInteractions(taskRepository);
+    }
+    @Test
     void deleteTask_success() {
-        when(taskRepository.findById(100L))
+        when(taskRepository.findByIdForUpdate(100L))
                 .thenReturn(Optional.of(task));
 
         ResponseDTO response = service.deleteTask(100L);
 
         assertEquals("Task deleted", response.getMessage());
         verify(taskRepository).delete(task);
+        verify(taskSearchIndex).onTaskDeleted(100L);
+        verify(statusCountRepository).adjust(10L, TaskStatus.PENDING.code(), -1);
+        verify(changeEvents).publish(1L, ChangeEvent.taskDeleted(10L, 100L));
+        verify(entityManager).persist(argThat(t -> t instanceof Tombstone ts
+                && ts.getKind() == Tombstone.Kind.TASK && ts.getEntityId() == 100L && ts.getOwnerId() == 1L));
+    }
+    @Test
+    void getDashboard_mergesGroupedQueriesPerProject() {
+        when(projectRepository.findRowsByUserId(1L)).thenReturn(List.of(
+                new ProjectRow(10L, "TMS", null, null, null, 1L),
+                new ProjectRow(11L, "Empty", null, null, null, 1L)));
+        when(statusCountRepository.findRowsByUserId(1L)).thenReturn(List.of(
+                new ProjectStatusRow(10L, "TMS", TaskStatus.PENDING.code(), 2L),
+                new ProjectStatusRow(10L, "TMS", TaskStatus.COMPLETED.code(), 1L)));
+        when(taskRepository.countOverdueByOwner(eq(1L), any(LocalDate.class), eq(TaskStatus.COMPLETED)))
+                .thenReturn(List.of(new ProjectCountRow(10L, 1L)));
+        when(taskRepository.findUpcomingByOwner(eq(1L), any(LocalDate.class), eq(TaskStatus.COMPLETED), eq(3)))
+                .thenReturn(List.of(row(task)));
+
+        DashboardDTO dashboard = service.getDashboardForUser(1L, 3);
+
+        assertEquals(2, dashboard.getProjects().size());
+        DashboardProjectDTO tms = dashboard.getProjects().get(0);
+        assertEquals(3, tms.getTaskCount());
+        assertEquals(1, tms.getOverdueCount());
+        assertEquals(0L, tms.getStatusCounts().get("in-progress"));
+        assertEquals(100L, tms.getUpcomingTasks().get(0).getId());
+        assertTrue(dashboard.getProjects().get(1).getUpcomingTasks().isEmpty());
+        assertEquals(3, dashboard.getTaskCount());
+        verify(projectRepository, never()).findOwnerIdById(any());
+    }
+    @Test
+    void getDashboard_noProjectsSkipsTheTaskQueries() {
+        when(projectRepository.findRowsByUserId(1L)).thenReturn(List.of());
+
+        DashboardDTO dashboard = service.getDashboardForUser(1L, 3);
+
+        assertTrue(dashboard.getProjects().isEmpty());
+        verifyNoInteractions(taskRepository, statusCountRepository);
+    }
+    @Test
+    void getStatusCounts_groupsCounterRowsByProject() {
+        when(statusCountRepository.findRowsByUserId(1L)).thenReturn(List.of(
+                new ProjectStatusRow(10L, "TMS", TaskStatus.PENDING.code(), 3L),
+                new ProjectStatusRow(10L, "TMS", TaskStatus.IN_PROGRESS.code(), 1L),
+                new ProjectStatusRow(10L, "TMS", TaskStatus.COMPLETED.code(), 2L),
+                new ProjectStatusRow(11L, "Other", TaskStatus.PENDING.code(), 0L)));
+
+        List<ProjectStatusCountsDTO> result = service.getStatusCountsForUser(1L);
+
+        assertEquals(2, result.size());
+        assertEquals(6, result.get(0).getTotal());
+        assertEquals(1L, result.get(0).getCounts().get("in-progress"));
+        assertEquals("Other", result.get(1).getProjectTitle());
+        verifyNoInteractions(taskRepository);
     }
     @Test
     void deleteProject_success() {
-        when(projectRepository.findById(10L))
-                .thenReturn(Optional.of(project));
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(statusCountRepository.sumByProjectId(10L)).thenReturn(3L);
+
+        ResponseDTO response =
+                service.deleteProjectAndAssociatedTasksForUser(10L, 1L);
+
+        assertEquals("Project deleted", response.getMessage());
+        InOrder order = inOrder(taskRepository, projectRepository, statusCountRepository);
+        order.verify(taskRepository).deleteByProjectId(10L);
+        order.verify(projectRepository).deleteEmptyById(10L);
+        order.verify(statusCountRepository).deleteByProjectId(10L);
+    }
+    @Test
+    void deleteProject_largeProjectIsMarkedForPurge() {
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(statusCountRepository.sumByProjectId(10L)).thenReturn(50_000L);
 
         ResponseDTO response =
                 service.deleteProjectAndAssociatedTasksForUser(10L, 1L);
 
         assertEquals("Project deleted", response.getMessage());
-        verify(projectRepository).delete(project);
+        verify(projectRepository).markDeleted(10L);
+        verify(taskRepository, never()).deleteByProjectId(any());
+        verify(projectRepository, never()).deleteEmptyById(any());
+    }
+    @Test
+    void fetchTasksForProject_deletedProjectNotFound() {
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.empty());
+
+        TMSException ex = assertThrows(TMSException.class,
+                () -> service.fetchTasksForProjectAndUser(10L, 1L));
+        assertEquals("Project not found", ex.getMessage());
+    }
+    @Test
+    void exportTasksForUser_writesOneJsonObjectPerLine() throws Exception {
+        Tasks second = new Tasks();
+        second.setId(101L);
+        second.setTitle("Task 2");
+        second.setProject(project);
+        when(taskRepository.streamRowsByOwner(1L))
+                .thenReturn(Stream.of(row(task), row(second)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = service.exportTasksForUser(1L, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        assertEquals(100L, objectMapper.readValue(lines[0], TasksDTO.class).getId());
+        assertEquals("Task 2", objectMapper.readValue(lines[1], TasksDTO.class).getTitle());
     }
     @Test
     void getTopFivePriorityTasks_success() {
-        when(taskRepository.findByProject_User_Id(1L))
-                .thenReturn(List.of(task));
+        when(taskRepository.findTopByOwner(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(row(task)));
 
         List<TasksDTO> result = service.getTopFivePriorityTasksForUser(1L);
 
         assertEquals(1, result.size());
     }
+    @Test
+    void getTopPriorityTasks_servedFromCacheAfterFirstRead() {
+        when(taskRepository.findTopByOwner(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(row(task)));
+
+        service.getTopPriorityTasksForUser(1L, 5);
+        List<TasksDTO> result = service.getTopPriorityTasksForUser(1L, 3);
+
+        assertEquals(1, result.size());
+        verify(taskRepository, times(1)).findTopByOwner(eq(1L), any(Pageable.class));
+    }
+    @Test
+    void getTopPriorityTasks_cacheSeesNewTask() {
+        when(taskRepository.findTopByOwner(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(row(task)));
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+        when(taskRepository.save(any(Tasks.class))).thenAnswer(inv -> {
+            Tasks saved = inv.getArgument(0);
+            saved.setId(200L);
+            return saved;
+        });
+        service.getTopPriorityTasksForUser(1L, 5);
+
+        TasksDTO dto = new TasksDTO();
+        dto.setTitle("Urgent");
+        dto.setPriority(10);
+        service.addTaskToProjectForUser(10L, 1L, dto);
+
+        List<TasksDTO> result = service.getTopPriorityTasksForUser(1L, 5);
+
+        assertEquals(2, result.size());
+        assertEquals(200L, result.get(0).getId());
+        verify(taskRepository, times(1)).findTopByOwner(eq(1L), any(Pageable.class));
+    }
+    @Test
+    void getTopPriorityTasks_limitOutOfRange() {
+        assertThrows(TMSException.class,
+                () -> service.getTopPriorityTasksForUser(1L, 0));
+    }
+
+    @Test
+    void searchTasks_keepsIndexRankOrder() {
+        Tasks second = new Tasks();
+        second.setId(101L);
+        second.setTitle("Task 2");
+        second.setProject(project);
+        when(taskSearchIndex.search(1L, "task", 0, 21)).thenReturn(List.of(101L, 100L));
+        when(taskRepository.findRowsByIdsAndOwner(List.of(101L, 100L), 1L))
+                .thenReturn(List.of(row(task), row(second)));
+
+        TaskSearchPageDTO page = service.searchTasksForUser(1L, " task ", null, null);
+
+        assertEquals(List.of(101L, 100L), page.getTasks().stream().map(TasksDTO::getId).toList());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextOffset());
+    }
+
+    @Test
+    void searchTasks_extraHitMeansAnotherPage() {
+        when(taskSearchIndex.search(1L, "task", 10, 3)).thenReturn(List.of(100L, 101L, 102L));
+        when(taskRepository.findRowsByIdsAndOwner(List.of(100L, 101L), 1L)).thenReturn(List.of(row(task)));
+
+        TaskSearchPageDTO page = service.searchTasksForUser(1L, "task", 10, 2);
+
+        assertTrue(page.isHasMore());
+        assertEquals(12, page.getNextOffset());
+        assertEquals(1, page.getTasks().size());
+    }
+
+    @Test
+    void searchTasks_noHitsSkipsTheDatabase() {
+        when(taskSearchIndex.search(1L, "nothing", 0, 21)).thenReturn(List.of());
+
+        TaskSearchPageDTO page = service.searchTasksForUser(1L, "nothing", null, null);
+
+        assertTrue(page.getTasks().isEmpty());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void searchTasks_invalidInput() {
+        assertThrows(TMSException.class, () -> service.searchTasksForUser(1L, " ", null, null));
+        assertThrows(TMSException.class, () -> service.searchTasksForUser(1L, "task", -1, null));
+        assertThrows(TMSException.class, () -> service.searchTasksForUser(1L, "task", 0, 101));
+        assertThrows(TMSException.class, () -> service.searchTasksForUser(1L, "task", 1001, null));
+    }
+
+    @Test
+    void searchTasks_noPageBeyondTheOffsetCap() {
+        when(taskSearchIndex.search(1L, "task", 990, 21)).thenReturn(LongStream.range(0, 21).boxed().toList());
+
+        TaskSearchPageDTO page = service.searchTasksForUser(1L, "task", 990, 20);
+
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextOffset());
+    }
 }
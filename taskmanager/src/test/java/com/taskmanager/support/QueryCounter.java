@@ -0,0 +1,87 @@
+package com.taskmanager.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Counts the JDBC statements the calling thread sends through the application's data
+ * source, which is already a datasource-proxy {@link ProxyDataSource} (see MetricsConfig).
+ * Work done on other threads, such as the scheduled project purge, is not counted.
+ *
+ * <p>A JDBC batch counts as one statement. Sequence fetches are kept out of the budget:
+ * with a pooled sequence they happen once per allocation block, so whether a call pays
+ * for one depends on what ran before it.
+ */
+public final class QueryCounter {
+
+    public record Counts(long select, long insert, long update, long delete, long other) {
+
+        public static Counts of(long select, long insert, long update, long delete) {
+            return new Counts(select, insert, update, delete, 0);
+        }
+
+        @Override
+        public String toString() {
+            return "select=" + select + " insert=" + insert + " update=" + update + " delete=" + delete + " other=" + other;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    private static final Set<DataSource> installed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private static final ThreadLocal<long[]> counts = new ThreadLocal<>();
+
+    private static final QueryExecutionListener listener = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            long[] c = counts.get();
+            if (c == null || queryInfoList.isEmpty()) return;
+            String sql = queryInfoList.get(0).getQuery().trim().toLowerCase(Locale.ROOT);
+            if (sql.contains("next value for") || sql.contains("nextval(")) return;
+            // H2's "select ... from old table (update ...)" is an update that returns rows
+            if (sql.contains(" table (update ")) c[2]++;
+            else if (sql.startsWith("select") || sql.startsWith("with")) c[0]++;
+            else if (sql.startsWith("insert")) c[1]++;
+            else if (sql.startsWith("update")) c[2]++;
+            else if (sql.startsWith("delete")) c[3]++;
+            else c[4]++;
+        }
+    };
+
+    private QueryCounter() {
+    }
+
+    public static void install(DataSource dataSource) throws SQLException {
+        if (installed.add(dataSource)) {
+            dataSource.unwrap(ProxyDataSource.class).addListener(listener);
+        }
+    }
+
+    public static Counts count(Work work) throws Exception {
+        long[] c = new long[5];
+        counts.set(c);
+        try {
+            work.run();
+        } finally {
+            counts.remove();
+        }
+        return new Counts(c[0], c[1], c[2], c[3], c[4]);
+    }
+}
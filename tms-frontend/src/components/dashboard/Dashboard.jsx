@@ -26,8 +26,9 @@ export default function Dashboard() {
     setLoadingProjects(true);
     setError(null);
     try {
-      const response = await ProjectService.getAll(user.id);
-      setProjects(response.data);
+      // one call returns every project with its counts and next due tasks
+      const response = await ProjectService.getDashboard(user.id);
+      setProjects(response.data.projects);
     } catch (err) {
       setError(err.response?.data?.message || err.message || 'Failed to load projects');
     }
@@ -98,7 +99,7 @@ export default function Dashboard() {
         </div>
       ) : (
         <div className="projects-grid">
-          {projects.map(project => (
+          {projects.map(({ project, ...summary }) => (
             <div
               key={project.id}
               className="project-card-wrapper"
@@ -106,6 +107,7 @@ export default function Dashboard() {
             >
               <ProjectCard
                 project={project}
+                summary={summary}
                 onDelete={(e) => {
                   e.stopPropagation();
                   handleDelete(project.id);
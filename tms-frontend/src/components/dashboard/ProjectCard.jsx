@@ -2,7 +2,7 @@ import React from 'react';
 import { formatDateLong } from '../../utils/helpers';
 import '../../styles/app.css';
 
-function ProjectCard({ project, onDelete, onViewTasks }) {
+function ProjectCard({ project, summary, onDelete, onViewTasks }) {
   return (
     <div className="task-card">
       <div className="task-header">
@@ -28,6 +28,28 @@ function ProjectCard({ project, onDelete, onViewTasks }) {
         )}
       </div>
 
+      {summary && (
+        <div className="project-meta d-flex gap-2 mt-2">
+          <span className="meta-item">Tasks: {summary.taskCount}</span>
+          {Object.entries(summary.statusCounts || {}).map(([status, count]) => (
+            <span key={status} className="meta-item">{status}: {count}</span>
+          ))}
+          {summary.overdueCount > 0 && (
+            <span className="overdue-badge">{summary.overdueCount} overdue</span>
+          )}
+        </div>
+      )}
+
+      {summary?.upcomingTasks?.length > 0 && (
+        <ul className="upcoming-tasks mt-2">
+          {summary.upcomingTasks.map(task => (
+            <li key={task.id}>
+              {task.title} <span className="due-date">{formatDateLong(task.dueDate)}</span>
+            </li>
+          ))}
+        </ul>
+      )}
+
       <div className="project-actions mt-3">
         <button
           className="btn btn-primary btn-sm"
@@ -2,6 +2,7 @@ import React, { useEffect, useState, useRef } from 'react';
 import { useParams, useNavigate, useLocation } from 'react-router-dom';
 import { useAuth } from '../../context/AuthContext';
 import TaskService from '../../services/taskService';
+import subscribeToChanges from '../../services/changeStream';
 import { 
   getStatusColor, 
   getPriorityLevelText, 
@@ -11,6 +12,11 @@ import {
 } from '../../utils/helpers';
 import '../../styles/app.css';
 
+const STALE_MESSAGE = 'This task was changed elsewhere. Reload the page to see the latest version.';
+const isStale = (err) => err?.response?.status === 412;
+// ETags are "<id>-<version>"
+const versionOf = (etag) => Number(etag?.match(/-(\d+)"$/)?.[1] ?? -1);
+
 function TaskDetails() {
   const { id } = useParams();
   const { user } = useAuth();
@@ -25,6 +31,10 @@ function TaskDetails() {
   const [deleting, setDeleting] = useState(false);
   
   const timeoutRef = useRef(null);
+  // version of the task this page last read or wrote, sent back as If-Match
+  const etagRef = useRef(null);
+  const editingRef = useRef(false);
+  editingRef.current = editing;
 
   useEffect(() => {
     let mounted = true;
@@ -36,6 +46,7 @@ function TaskDetails() {
       try {
         const res = await TaskService.getById(id);
         if (mounted) {
+          etagRef.current = res.headers?.etag || null;
           const taskData = res.data;
           taskData.priority = taskData.priority || 5;
           setTask(taskData);
@@ -62,6 +73,32 @@ function TaskDetails() {
     };
   }, [id]);
 
+  // another tab or user changed this task: show it, unless that would throw away an edit in progress
+  useEffect(() => {
+    if (!user) return undefined;
+    const taskId = Number(id);
+    return subscribeToChanges(user.id, (event) => {
+      if (event.type === 'task.deleted' && event.taskId === taskId) {
+        setError('This task was deleted elsewhere.');
+        return;
+      }
+      const changed = (event.type === 'task.updated' && event.taskId === taskId && event.version > versionOf(etagRef.current))
+        || event.type === 'tasks.changed'
+        || event.type === 'resync';
+      if (!changed) return;
+      if (editingRef.current) {
+        if (event.type === 'task.updated') setError(STALE_MESSAGE);
+        return;
+      }
+      TaskService.getById(id)
+        .then(res => {
+          etagRef.current = res.headers?.etag || null;
+          setTask({ ...res.data, priority: res.data.priority || 5 });
+        })
+        .catch(err => console.error(err));
+    });
+  }, [id, user]);
+
   const handleChange = (e) => {
     const { name, value, type } = e.target;
     setTask(prev => ({ 
@@ -90,7 +127,8 @@ function TaskDetails() {
     setError('');
     
     try {
-      await TaskService.update(id, task);
+      const res = await TaskService.update(id, task, etagRef.current);
+      etagRef.current = res.headers?.etag || null;
       setEditing(false);
       
       setError('Task updated successfully!');
@@ -100,7 +138,7 @@ function TaskDetails() {
       timeoutRef.current = setTimeout(() => setError(''), 3000);
     } catch (err) {
       console.error(err);
-      setError('Failed to save changes. Please try again.');
+      setError(isStale(err) ? STALE_MESSAGE : 'Failed to save changes. Please try again.');
     } finally {
       setSaving(false);
     }
@@ -133,11 +171,12 @@ function TaskDetails() {
     setTask(prev => ({ ...prev, status: newStatus }));
 
     try {
-      await TaskService.partialUpdate(id, { status: newStatus });
+      const res = await TaskService.partialUpdate(id, { status: newStatus }, etagRef.current);
+      etagRef.current = res.headers?.etag || null;
     } catch (err) {
       setTask(prev => ({ ...prev, status: previousStatus }));
       console.error(err);
-      setError('Failed to update status. Please try again.');
+      setError(isStale(err) ? STALE_MESSAGE : 'Failed to update status. Please try again.');
     }
   };
 
@@ -147,6 +186,7 @@ function TaskDetails() {
     
     TaskService.getById(id)
       .then(res => {
+        etagRef.current = res.headers?.etag || null;
         const taskData = res.data;
         taskData.priority = taskData.priority || 5;
         setTask(taskData);
@@ -3,6 +3,7 @@ import { useParams, useNavigate, Link } from 'react-router-dom';
 import { useAuth } from '../../context/AuthContext';
 import ProjectService from '../../services/projectService';
 import TaskService from '../../services/taskService';
+import subscribeToChanges from '../../services/changeStream';
 import { getPriorityLevelText, formatDateLong } from '../../utils/helpers';
 import '../../styles/app.css';
 
@@ -17,6 +18,10 @@ function TaskList() {
   const [error, setError] = useState('');
   const [filterMode, setFilterMode] = useState('all');
   const [filterLoading, setFilterLoading] = useState(false);
+  // keyset paging: the server returns a page and the cursor of the one after it
+  const [nextCursor, setNextCursor] = useState(null);
+  const [hasMore, setHasMore] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     if (!user) {
@@ -26,8 +31,50 @@ function TaskList() {
     }
   }, [projectId, user, navigate]);
 
-  const loadProjectAndTasks = async () => {
-    setLoading(true);
+  // single-task changes touch one row; bulk writes and resync fall back to a reload
+  useEffect(() => {
+    if (!user || filterMode !== 'all') return undefined;
+    return subscribeToChanges(user.id, (event) => {
+      const inProject = event.projectId == null || event.projectId.toString() === projectId;
+      if (!inProject) return;
+      switch (event.type) {
+        case 'task.created':
+        case 'task.updated':
+          refreshTask(event.taskId, event.version);
+          break;
+        case 'task.deleted':
+          setTasks(prev => prev.filter(t => t.id !== event.taskId));
+          break;
+        case 'project.deleted':
+          setProject(null);
+          break;
+        case 'tasks.changed':
+        case 'resync':
+          loadProjectAndTasks({ quiet: true });
+          break;
+        default:
+      }
+    });
+  }, [projectId, user, filterMode]);
+
+  const refreshTask = async (taskId, version) => {
+    try {
+      const res = await TaskService.getById(taskId);
+      const fresh = { ...res.data, priority: res.data.priority || 5 };
+      setTasks(prev => {
+        const current = prev.find(t => t.id === taskId);
+        if (!current) return [...prev, fresh];
+        // an older read finishing late must not replace a newer row
+        if (current.version != null && current.version >= (fresh.version ?? version)) return prev;
+        return prev.map(t => (t.id === taskId ? fresh : t));
+      });
+    } catch (err) {
+      console.error('Error refreshing task:', err);
+    }
+  };
+
+  const loadProjectAndTasks = async ({ quiet = false } = {}) => {
+    if (!quiet) setLoading(true);
     setError('');
     
     try {
@@ -36,11 +83,9 @@ function TaskList() {
       setProject(currentProject || null);
       
       const tasksRes = await ProjectService.getTasks(projectId, user.id);
-      const tasksWithNumericPriority = tasksRes.data.map(task => ({
-        ...task,
-        priority: task.priority || 5
-      }));
-      setTasks(tasksWithNumericPriority);
+      setTasks(withDefaultPriority(tasksRes.data.tasks));
+      setNextCursor(tasksRes.data.nextCursor);
+      setHasMore(tasksRes.data.hasMore);
       setFilterMode('all');
     } catch (err) {
       console.error('Error loading tasks:', err);
@@ -50,6 +95,24 @@ function TaskList() {
     }
   };
 
+  const loadMoreTasks = async () => {
+    if (!hasMore || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const tasksRes = await ProjectService.getTasks(projectId, user.id, { after: nextCursor });
+      const page = withDefaultPriority(tasksRes.data.tasks);
+      // a task created since the first page may already be listed through the change stream
+      setTasks(prev => [...prev, ...page.filter(task => !prev.some(t => t.id === task.id))]);
+      setNextCursor(tasksRes.data.nextCursor);
+      setHasMore(tasksRes.data.hasMore);
+    } catch (err) {
+      console.error('Error loading more tasks:', err);
+      setError('Failed to load more tasks. Please try again.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleTopPriorityClick = async () => {
     if (filterMode === 'top5') {
       setFilterMode('all');
@@ -60,11 +123,7 @@ function TaskList() {
     setFilterLoading(true);
     try {
       const res = await TaskService.getTopPriority(user.id);
-      const topTasks = res.data.map(task => ({
-        ...task,
-        priority: task.priority || 5
-      }));
-      setTasks(topTasks);
+      setTasks(withDefaultPriority(res.data));
       setFilterMode('top5');
       setError('');
     } catch (err) {
@@ -85,7 +144,7 @@ function TaskList() {
     
     try {
       await TaskService.delete(taskId);
-      loadProjectAndTasks();
+      setTasks(prev => prev.filter(t => t.id !== taskId));
     } catch (err) {
       console.error('Error deleting task:', err);
       setError('Failed to delete task. Please try again.');
@@ -96,7 +155,7 @@ function TaskList() {
     if (filterMode === 'top5') {
       return `${tasks.length} of top priority`;
     }
-    return tasks.length;
+    return hasMore ? `${tasks.length}+` : tasks.length;
   };
 
   if (loading) return (
@@ -248,6 +307,18 @@ function TaskList() {
               ))}
             </ul>
 
+            {filterMode === 'all' && hasMore && (
+              <div className="d-flex justify-center mt-4">
+                <button 
+                  className="btn btn-outline"
+                  onClick={loadMoreTasks}
+                  disabled={loadingMore}
+                >
+                  {loadingMore ? 'Loading...' : 'Load More Tasks'}
+                </button>
+              </div>
+            )}
+
             {filterMode === 'top5' && tasks.length > 0 && (
               <div className="d-flex justify-center mt-4">
                 <button 
@@ -266,4 +337,9 @@ function TaskList() {
   );
 }
 
+const withDefaultPriority = (tasks) => tasks.map(task => ({
+  ...task,
+  priority: task.priority || 5
+}));
+
 export default TaskList;
\ No newline at end of file
@@ -0,0 +1,29 @@
+import api from './api';
+
+const EVENTS = [
+  'task.created',
+  'task.updated',
+  'task.deleted',
+  'tasks.changed',
+  'project.created',
+  'project.deleted',
+  'resync',
+];
+
+// Committed changes to the user's projects and tasks, pushed by the server. The browser
+// reconnects on its own; the first event after a reconnect is 'resync', since anything
+// sent in between is lost. Returns the function that closes the stream.
+const subscribeToChanges = (userId, onChange) => {
+  const source = new EventSource(`${api.defaults.baseURL}/stream?userId=${encodeURIComponent(userId)}`);
+  const listener = (e) => {
+    try {
+      onChange(JSON.parse(e.data));
+    } catch (err) {
+      console.error('Bad change event:', err);
+    }
+  };
+  EVENTS.forEach((name) => source.addEventListener(name, listener));
+  return () => source.close();
+};
+
+export default subscribeToChanges;
@@ -2,14 +2,17 @@ import api from './api';
 
 const ProjectService = {
   getAll: (userId) => api.get('/projects', { params: { userId } }),
+
+  getDashboard: (userId, upcoming = 3) =>
+    api.get('/dashboard', { params: { userId, upcoming } }),
   
   create: (projectData) => api.post('/projects', projectData),
   
   delete: (projectId, userId) => 
     api.delete(`/projects/${projectId}`, { params: { userId } }),
   
-  getTasks: (projectId, userId) => 
-    api.get(`/projects/${projectId}/tasks`, { params: { userId } }),
+  getTasks: (projectId, userId, query = {}) => 
+    api.get(`/projects/${projectId}/tasks`, { params: { userId, ...query } }),
   
   addTask: (projectId, userId, taskData) => 
     api.post(`/projects/${projectId}/tasks`, taskData, { 
@@ -1,11 +1,14 @@
 import api from './api';
 
+const ifMatch = (etag) => (etag ? { headers: { 'If-Match': etag } } : undefined);
+
 const TaskService = {
   getById: (id) => api.get(`/tasks/${id}`),
   
-  update: (id, taskData) => api.put(`/tasks/${id}`, taskData),
+  // with the ETag from the last read the write only applies to that version (412 otherwise)
+  update: (id, taskData, etag) => api.put(`/tasks/${id}`, taskData, ifMatch(etag)),
   
-  partialUpdate: (id, taskData) => api.patch(`/tasks/${id}`, taskData),
+  partialUpdate: (id, taskData, etag) => api.patch(`/tasks/${id}`, taskData, ifMatch(etag)),
   
   delete: (id) => api.delete(`/tasks/${id}`),
   